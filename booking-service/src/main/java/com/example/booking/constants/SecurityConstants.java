@@ -10,4 +10,6 @@ public final class SecurityConstants {
     public static final String TOKEN_TYPE = "Bearer";
     public static final long TOKEN_EXPIRATION_SECONDS = 3600;
     public static final String SCOPE_ADMIN_AUTHORITY = "SCOPE_ADMIN";
+    // Токены, которые другие сервисы подписывают для своих вызовов (например, hotel-service)
+    public static final String SCOPE_SERVICE_AUTHORITY = "SCOPE_SERVICE";
 }
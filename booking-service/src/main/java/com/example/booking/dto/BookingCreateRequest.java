@@ -1,6 +1,7 @@
 package com.example.booking.dto;
 
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,9 +12,14 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @AllArgsConstructor
 public class BookingCreateRequest {
-    @NotNull(message = "Room ID is required")
+    // Either a specific room, or a hotel and a room type to get any free room of that type
     private Long roomId;
 
+    private Long hotelId;
+
+    @Size(max = 50, message = "Room type must be at most 50 characters")
+    private String roomType;
+
     @NotNull(message = "Start date is required")
     private LocalDate startDate;
 
@@ -22,4 +28,7 @@ public class BookingCreateRequest {
 
     @NotNull(message = "Request ID is required for idempotency")
     private String requestId;
+
+    // If the chosen room is taken for these dates, wait for it instead of failing
+    private boolean waitlist;
 }
@@ -15,13 +15,17 @@ import java.time.OffsetDateTime;
 @AllArgsConstructor
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence: ids are handed out in blocks, so inserts can be batched (IDENTITY cannot)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_seq")
+    @SequenceGenerator(name = "booking_seq", sequenceName = "booking_seq", allocationSize = 50)
     private Long id;
 
     private String requestId; // idempotency key per request
 
     private Long userId;
-    private Long roomId;
+    private Long roomId; // for a booking by room type, the room hotel-service picked
+    private Long hotelId;
+    private String roomType;
     private LocalDate startDate;
     private LocalDate endDate;
 
@@ -32,7 +36,7 @@ public class Booking {
 
     private OffsetDateTime createdAt;
 
-    public enum Status { PENDING, CONFIRMED, CANCELLED }
+    public enum Status { PENDING, WAITLISTED, CONFIRMED, CANCELLED }
 }
 
 
@@ -1,8 +1,10 @@
 package com.example.booking.security;
 
+import com.example.booking.constants.SecurityConstants;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
@@ -33,6 +35,9 @@ public class SecurityConfig {
                 .csrf(ServerHttpSecurity.CsrfSpec::disable)
                 .authorizeExchange(exchanges -> exchanges
                         .pathMatchers(PUBLIC_ENDPOINTS).permitAll()
+                        // Уведомления hotel-service: только сервисный токен (или администратор)
+                        .pathMatchers(HttpMethod.POST, "/bookings/waitlist/granted")
+                        .hasAnyAuthority(SecurityConstants.SCOPE_SERVICE_AUTHORITY, SecurityConstants.SCOPE_ADMIN_AUTHORITY)
                         .anyExchange().authenticated()
                 )
                 .oauth2ResourceServer(oauth2 -> 
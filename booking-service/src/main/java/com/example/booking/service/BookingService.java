@@ -3,6 +3,7 @@ package com.example.booking.service;
 import com.example.booking.dto.BookingCreateRequest;
 import com.example.booking.dto.BookingResponse;
 import com.example.booking.exception.BookingException;
+import com.example.booking.exception.ResourceNotFoundException;
 import com.example.booking.model.Booking;
 import com.example.booking.repo.BookingRepository;
 import org.slf4j.Logger;
@@ -12,6 +13,7 @@ import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
 import reactor.util.retry.Retry;
 
@@ -30,18 +32,24 @@ public class BookingService {
     private final WebClient webClient;
     private final int retries;
     private final Duration timeout;
+    private final int holdTtlSeconds;
+    private final boolean singleStepReserve;
 
     public BookingService(
             BookingRepository bookingRepository,
             WebClient.Builder builder,
             @Value("${hotel.base-url}") String hotelBaseUrl,
             @Value("${hotel.timeout-ms}") int timeoutMs,
-            @Value("${hotel.retries}") int retries
+            @Value("${hotel.retries}") int retries,
+            @Value("${hotel.hold-ttl-seconds:120}") int holdTtlSeconds,
+            @Value("${hotel.single-step-reserve:false}") boolean singleStepReserve
     ) {
         this.bookingRepository = bookingRepository;
         this.webClient = builder.baseUrl(hotelBaseUrl).build();
         this.retries = retries;
         this.timeout = Duration.ofMillis(timeoutMs);
+        this.holdTtlSeconds = holdTtlSeconds;
+        this.singleStepReserve = singleStepReserve;
     }
 
     @Transactional
@@ -57,9 +65,11 @@ public class BookingService {
         }
         
         validateBookingDates(request);
+        validateRoomChoice(request);
         
         Booking booking = createPendingBooking(userId, request, correlationId);
-        booking = bookingRepository.save(booking);
+        // Flushed right away so that a duplicate requestId fails here, before the hotel is called
+        booking = bookingRepository.saveAndFlush(booking);
         
         log.info("[{}] Booking PENDING created", correlationId);
 
@@ -69,6 +79,13 @@ public class BookingService {
             bookingRepository.save(booking);
             log.info("[{}] Booking CONFIRMED", correlationId);
         } catch (Exception e) {
+            // Номер занят на эти даты: вместо повторных саг клиента ждём освобождения в очереди hotel-service
+            if (e instanceof RoomTakenException && request.isWaitlist() && joinWaitlist(booking, correlationId)) {
+                booking.setStatus(Booking.Status.WAITLISTED);
+                bookingRepository.save(booking);
+                log.info("[{}] Booking WAITLISTED for room {}", correlationId, booking.getRoomId());
+                return BookingResponse.fromEntity(booking);
+            }
             log.warn("[{}] Booking flow failed: {}", correlationId, e.toString());
             compensateBooking(booking, correlationId);
             booking.setStatus(Booking.Status.CANCELLED);
@@ -87,11 +104,22 @@ public class BookingService {
         }
     }
 
+    private void validateRoomChoice(BookingCreateRequest request) {
+        if (request.getRoomId() == null && (request.getHotelId() == null || request.getRoomType() == null
+                || request.getRoomType().isBlank())) {
+            throw new IllegalArgumentException("Either roomId or hotelId and roomType are required");
+        }
+    }
+
     private Booking createPendingBooking(Long userId, BookingCreateRequest request, String correlationId) {
         Booking booking = new Booking();
         booking.setRequestId(request.getRequestId());
         booking.setUserId(userId);
         booking.setRoomId(request.getRoomId());
+        if (request.getRoomId() == null) {
+            booking.setHotelId(request.getHotelId());
+            booking.setRoomType(request.getRoomType());
+        }
         booking.setStartDate(request.getStartDate());
         booking.setEndDate(request.getEndDate());
         booking.setStatus(Booking.Status.PENDING);
@@ -104,12 +132,27 @@ public class BookingService {
         Map<String, String> holdPayload = Map.of(
                 "requestId", booking.getRequestId(),
                 "startDate", booking.getStartDate().toString(),
-                "endDate", booking.getEndDate().toString()
+                "endDate", booking.getEndDate().toString(),
+                "ttlSeconds", String.valueOf(holdTtlSeconds)
         );
         
-        // Удержание слота (hold)
-        callHotel("/rooms/" + booking.getRoomId() + "/hold", holdPayload, correlationId)
-                .block(timeout);
+        // Бронирование по типу номера: hotel-service сам выбирает свободный номер этого типа и возвращает его id
+        if (booking.getRoomId() == null) {
+            LockView lock = callHotel("/hotels/{hotelId}/room-types/{roomType}/" + (singleStepReserve ? "reserve" : "hold"),
+                    holdPayload, correlationId, LockView.class, booking.getHotelId(), booking.getRoomType())
+                    .block(timeout);
+            booking.setRoomId(lock.roomId());
+            if (singleStepReserve) {
+                return;
+            }
+        } else if (singleStepReserve) {
+            // Без промежуточных шагов между hold и confirm — один вызов reserve (одна транзакция в hotel-service)
+            takeRoom(booking, "/reserve", holdPayload, correlationId);
+            return;
+        } else {
+            // Удержание слота (hold); если сага оборвётся, hotel-service сам снимет hold по истечении TTL
+            takeRoom(booking, "/hold", holdPayload, correlationId);
+        }
         
         // Подтверждение (confirm)
         Map<String, String> confirmPayload = Map.of("requestId", booking.getRequestId());
@@ -117,24 +160,126 @@ public class BookingService {
                 .block(timeout);
     }
 
+    // 409 на hold/reserve конкретного номера означает, что номер занят на эти даты
+    private void takeRoom(Booking booking, String action, Map<String, String> holdPayload, String correlationId) {
+        try {
+            callHotel("/rooms/" + booking.getRoomId() + action, holdPayload, correlationId)
+                    .block(timeout);
+        } catch (RuntimeException e) {
+            if (isConflict(e)) {
+                throw new RoomTakenException(e);
+            }
+            throw e;
+        }
+    }
+
+    // Ошибка может прийти как есть или обёрнутой в исчерпание повторов
+    private static boolean isConflict(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof WebClientResponseException response && response.getStatusCode().value() == 409) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean joinWaitlist(Booking booking, String correlationId) {
+        Map<String, String> waitPayload = Map.of(
+                "requestId", booking.getRequestId(),
+                "startDate", booking.getStartDate().toString(),
+                "endDate", booking.getEndDate().toString(),
+                "ttlSeconds", String.valueOf(holdTtlSeconds)
+        );
+        try {
+            callHotel("/rooms/" + booking.getRoomId() + "/waitlist", waitPayload, correlationId)
+                    .block(timeout);
+            return true;
+        } catch (Exception e) {
+            log.warn("[{}] Failed to join the waitlist of room {}: {}", correlationId, booking.getRoomId(), e.toString());
+            return false;
+        }
+    }
+
+    /**
+     * hotel-service сообщил, что для брони из очереди ожидания поставлен hold: подтверждаем его.
+     * Если hold уже закончился (RELEASED — истёк до передачи), бронь отменяется.
+     * Повторное уведомление для уже завершённой брони ничего не меняет.
+     */
+    @Transactional
+    public BookingResponse completeWaitlisted(WaitlistGrant grant) {
+        Booking booking = bookingRepository.findByRequestId(grant.requestId())
+                .orElseThrow(() -> new ResourceNotFoundException("Booking not found for requestId: " + grant.requestId()));
+        if (booking.getStatus() != Booking.Status.WAITLISTED) {
+            return BookingResponse.fromEntity(booking);
+        }
+        String correlationId = booking.getCorrelationId();
+        if (!grant.isHeld()) {
+            booking.setStatus(Booking.Status.CANCELLED);
+            bookingRepository.save(booking);
+            log.info("[{}] Waitlisted booking CANCELLED: hold {} before hand-off", correlationId, grant.status());
+            return BookingResponse.fromEntity(booking);
+        }
+        try {
+            callHotel("/rooms/" + grant.roomId() + "/confirm", Map.of("requestId", booking.getRequestId()), correlationId)
+                    .block(timeout);
+            booking.setStatus(Booking.Status.CONFIRMED);
+            log.info("[{}] Waitlisted booking CONFIRMED", correlationId);
+        } catch (Exception e) {
+            log.warn("[{}] Failed to confirm waitlist hold: {}", correlationId, e.toString());
+            compensateBooking(booking, correlationId);
+            booking.setStatus(Booking.Status.CANCELLED);
+            log.info("[{}] Waitlisted booking CANCELLED and compensated", correlationId);
+        }
+        bookingRepository.save(booking);
+        return BookingResponse.fromEntity(booking);
+    }
+
+    // Уведомление hotel-service о hold для брони из очереди ожидания; остальные поля ответа не нужны
+    public record WaitlistGrant(String requestId, Long roomId, String status) {
+        // Уведомления без статуса (старые версии hotel-service) всегда означали поставленный hold
+        boolean isHeld() {
+            return status == null || "HELD".equals(status);
+        }
+    }
+
+    private static final class RoomTakenException extends RuntimeException {
+        RoomTakenException(Throwable cause) {
+            super(cause);
+        }
+    }
+
     private void compensateBooking(Booking booking, String correlationId) {
+        if (booking.getRoomId() == null) {
+            // Номер нужного типа так и не был выбран; если ответ hotel-service потерялся, hold истечёт сам
+            log.warn("[{}] No room was assigned to the booking, nothing to release", correlationId);
+            return;
+        }
         try {
             Map<String, String> releasePayload = Map.of("requestId", booking.getRequestId());
             callHotel("/rooms/" + booking.getRoomId() + "/release", releasePayload, correlationId)
                     .block(timeout);
         } catch (Exception e) {
-            log.error("[{}] Failed to release room during compensation", correlationId, e);
+            log.error("[{}] Failed to release room during compensation, hold will expire in {}s",
+                    correlationId, holdTtlSeconds, e);
         }
     }
 
+    // Ответ hotel-service на hold/reserve; нужен только id номера
+    public record LockView(Long roomId) {}
+
     private Mono<String> callHotel(String path, Map<String, String> payload, String correlationId) {
+        return callHotel(path, payload, correlationId, String.class);
+    }
+
+    private <T> Mono<T> callHotel(String path, Map<String, String> payload, String correlationId,
+                                  Class<T> responseType, Object... uriVariables) {
         return webClient.post()
-                .uri(path)
+                .uri(path, uriVariables)
                 .contentType(MediaType.APPLICATION_JSON)
                 .bodyValue(payload)
                 .header(CORRELATION_ID_HEADER, correlationId)
                 .retrieve()
-                .bodyToMono(String.class)
+                .bodyToMono(responseType)
                 .timeout(timeout)
                 .retryWhen(Retry.backoff(retries, Duration.ofMillis(300))
                         .maxBackoff(Duration.ofSeconds(2)));
@@ -42,6 +42,12 @@ public class BookingController {
         return bookingService.getRoomSuggestions();
     }
 
+    // Вызывается hotel-service (сервисный токен), когда для брони из очереди ожидания поставлен hold или он истёк
+    @PostMapping("/waitlist/granted")
+    public BookingResponse waitlistGranted(@RequestBody BookingService.WaitlistGrant grant) {
+        return bookingService.completeWaitlisted(grant);
+    }
+
     @GetMapping("/all")
     @PreAuthorize("hasAuthority('SCOPE_ADMIN')")
     public List<BookingResponse> all() {
@@ -45,6 +45,15 @@ public class BookingHttpIT {
     private WebTestClient webTestClient;
 
     private String tokenUser() {
+        return token("100", "USER");
+    }
+
+    // Токен, которым hotel-service подписывает свои уведомления
+    private String tokenService() {
+        return token("hotel-service", "SERVICE");
+    }
+
+    private String token(String subject, String scope) {
         byte[] bytes = "dev-secret-please-change".getBytes(StandardCharsets.UTF_8);
         if (bytes.length < 32) {
             byte[] padded = new byte[32];
@@ -53,8 +62,8 @@ public class BookingHttpIT {
         }
         Instant now = Instant.now();
         return Jwts.builder()
-                .setSubject("100")
-                .addClaims(Map.of("scope", "USER", "username", "it-user"))
+                .setSubject(subject)
+                .addClaims(Map.of("scope", scope, "username", "it-" + subject))
                 .setIssuedAt(Date.from(now))
                 .setExpiration(Date.from(now.plusSeconds(3600)))
                 .signWith(Keys.hmacShaKeyFor(bytes))
@@ -88,6 +97,52 @@ public class BookingHttpIT {
                 .expectStatus().is2xxSuccessful()
                 .expectBody().jsonPath("$.status").isEqualTo("CONFIRMED");
     }
-}
 
+    @Test
+    void waitlistGranted_Http_RequiresServiceToken() {
+        String grant = "{\"requestId\":\"" + UUID.randomUUID() + "\",\"roomId\":1,\"status\":\"HELD\"}";
+
+        webTestClient.post().uri("/bookings/waitlist/granted")
+                .header("Authorization", "Bearer " + tokenUser())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(grant)
+                .exchange()
+                .expectStatus().isForbidden();
+        webTestClient.post().uri("/bookings/waitlist/granted")
+                .header("Authorization", "Bearer " + tokenService())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(grant)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void waitlistGranted_Http_ExpiredHoldCancelsBooking() {
+        WiremockInitializer.wireMockServer.stubFor(post(urlPathMatching("/rooms/\\d+/hold")).willReturn(aResponse().withStatus(409)));
+        WiremockInitializer.wireMockServer.stubFor(post(urlPathMatching("/rooms/\\d+/waitlist")).willReturn(okJson("{}")));
+        String requestId = UUID.randomUUID().toString();
+
+        webTestClient.post().uri("/bookings")
+                .header("Authorization", "Bearer " + tokenUser())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{" +
+                        "\"roomId\":1," +
+                        "\"startDate\":\"2025-10-20\"," +
+                        "\"endDate\":\"2025-10-22\"," +
+                        "\"waitlist\":true," +
+                        "\"requestId\":\"" + requestId + "\"}")
+                .exchange()
+                .expectStatus().is2xxSuccessful()
+                .expectBody().jsonPath("$.status").isEqualTo("WAITLISTED");
 
+        // hold истёк раньше, чем уведомление дошло: бронь отменяется без вызова confirm
+        webTestClient.post().uri("/bookings/waitlist/granted")
+                .header("Authorization", "Bearer " + tokenService())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"requestId\":\"" + requestId + "\",\"roomId\":1,\"status\":\"RELEASED\"}")
+                .exchange()
+                .expectStatus().is2xxSuccessful()
+                .expectBody().jsonPath("$.status").isEqualTo("CANCELLED");
+        WiremockInitializer.wireMockServer.verify(0, postRequestedFor(urlPathMatching("/rooms/\\d+/confirm")));
+    }
+}
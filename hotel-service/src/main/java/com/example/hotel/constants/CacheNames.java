@@ -0,0 +1,8 @@
+package com.example.hotel.constants;
+
+public final class CacheNames {
+    private CacheNames() {}
+
+    public static final String HOTELS = "hotels";
+    public static final String ROOMS = "rooms";
+}
@@ -5,4 +5,7 @@ public final class SecurityConstants {
 
     public static final String SCOPE_CLAIM = "scope";
     public static final String SCOPE_ADMIN_AUTHORITY = "SCOPE_ADMIN";
+    // Scope of the tokens hotel-service signs for its own calls to other services
+    public static final String SCOPE_SERVICE = "SERVICE";
+    public static final String SERVICE_SUBJECT = "hotel-service";
 }
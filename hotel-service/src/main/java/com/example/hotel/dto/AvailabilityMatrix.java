@@ -0,0 +1,37 @@
+package com.example.hotel.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class AvailabilityMatrix {
+    private Long hotelId;
+    private LocalDate from;
+    private LocalDate to;
+    private int nights;
+    private List<RoomOccupancy> rooms;
+
+    public AvailabilityMatrix() {}
+
+    public AvailabilityMatrix(Long hotelId, LocalDate from, LocalDate to, int nights, List<RoomOccupancy> rooms) {
+        this.hotelId = hotelId;
+        this.from = from;
+        this.to = to;
+        this.nights = nights;
+        this.rooms = rooms;
+    }
+
+    public Long getHotelId() { return hotelId; }
+    public void setHotelId(Long hotelId) { this.hotelId = hotelId; }
+
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+
+    public int getNights() { return nights; }
+    public void setNights(int nights) { this.nights = nights; }
+
+    public List<RoomOccupancy> getRooms() { return rooms; }
+    public void setRooms(List<RoomOccupancy> rooms) { this.rooms = rooms; }
+}
@@ -0,0 +1,38 @@
+package com.example.hotel.dto;
+
+import java.util.Map;
+
+public class CatalogImportResult {
+    public enum Status { CREATED, INVALID, FAILED }
+
+    private long line;
+    private Status status;
+    private Long hotelId;
+    private int rooms;
+    private Map<String, String> errors;
+
+    public CatalogImportResult() {}
+
+    public CatalogImportResult(long line, Status status, Long hotelId, int rooms, Map<String, String> errors) {
+        this.line = line;
+        this.status = status;
+        this.hotelId = hotelId;
+        this.rooms = rooms;
+        this.errors = errors;
+    }
+
+    public long getLine() { return line; }
+    public void setLine(long line) { this.line = line; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public Long getHotelId() { return hotelId; }
+    public void setHotelId(Long hotelId) { this.hotelId = hotelId; }
+
+    public int getRooms() { return rooms; }
+    public void setRooms(int rooms) { this.rooms = rooms; }
+
+    public Map<String, String> getErrors() { return errors; }
+    public void setErrors(Map<String, String> errors) { this.errors = errors; }
+}
@@ -0,0 +1,35 @@
+package com.example.hotel.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One hotel of a bulk import together with its rooms. In NDJSON this is one line; in CSV it is a
+ * run of consecutive rows sharing the same hotel columns.
+ */
+public class CatalogImportRow {
+    private String name;
+    private String city;
+    private String address;
+    private List<RoomRequest> rooms = new ArrayList<>();
+
+    public CatalogImportRow() {}
+
+    public CatalogImportRow(String name, String city, String address) {
+        this.name = name;
+        this.city = city;
+        this.address = address;
+    }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getCity() { return city; }
+    public void setCity(String city) { this.city = city; }
+
+    public String getAddress() { return address; }
+    public void setAddress(String address) { this.address = address; }
+
+    public List<RoomRequest> getRooms() { return rooms; }
+    public void setRooms(List<RoomRequest> rooms) { this.rooms = rooms; }
+}
@@ -0,0 +1,24 @@
+package com.example.hotel.dto;
+
+public class CatalogImportSummary {
+    private long hotels;
+    private long rooms;
+    private long rejected;
+
+    public CatalogImportSummary() {}
+
+    public CatalogImportSummary(long hotels, long rooms, long rejected) {
+        this.hotels = hotels;
+        this.rooms = rooms;
+        this.rejected = rejected;
+    }
+
+    public long getHotels() { return hotels; }
+    public void setHotels(long hotels) { this.hotels = hotels; }
+
+    public long getRooms() { return rooms; }
+    public void setRooms(long rooms) { this.rooms = rooms; }
+
+    public long getRejected() { return rejected; }
+    public void setRejected(long rejected) { this.rejected = rejected; }
+}
@@ -2,37 +2,38 @@ package com.example.hotel.dto;
 
 import com.example.hotel.model.Hotel;
 
-public class HotelResponse {
-    private Long id;
-    private String name;
-    private String city;
-    private String address;
-    private int roomCount;
-
-    public HotelResponse() {}
+// Immutable: the same instance is handed out from the hotels cache to every caller
+public final class HotelResponse {
+    private final Long id;
+    private final String name;
+    private final String city;
+    private final String address;
+    private final int roomCount;
+
+    // Used by the constructor-expression queries in HotelRepository
+    public HotelResponse(Long id, String name, String city, String address, long roomCount) {
+        this.id = id;
+        this.name = name;
+        this.city = city;
+        this.address = address;
+        this.roomCount = (int) roomCount;
+    }
 
     public static HotelResponse fromEntity(Hotel hotel) {
-        HotelResponse response = new HotelResponse();
-        response.setId(hotel.getId());
-        response.setName(hotel.getName());
-        response.setCity(hotel.getCity());
-        response.setAddress(hotel.getAddress());
-        response.setRoomCount(hotel.getRooms() != null ? hotel.getRooms().size() : 0);
-        return response;
+        return fromEntity(hotel, hotel.getRooms() != null ? hotel.getRooms().size() : 0);
+    }
+
+    public static HotelResponse fromEntity(Hotel hotel, long roomCount) {
+        return new HotelResponse(hotel.getId(), hotel.getName(), hotel.getCity(), hotel.getAddress(), roomCount);
     }
 
     public Long getId() { return id; }
-    public void setId(Long id) { this.id = id; }
 
     public String getName() { return name; }
-    public void setName(String name) { this.name = name; }
 
     public String getCity() { return city; }
-    public void setCity(String city) { this.city = city; }
 
     public String getAddress() { return address; }
-    public void setAddress(String address) { this.address = address; }
 
     public int getRoomCount() { return roomCount; }
-    public void setRoomCount(int roomCount) { this.roomCount = roomCount; }
 }
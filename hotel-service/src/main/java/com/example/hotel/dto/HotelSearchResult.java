@@ -0,0 +1,29 @@
+package com.example.hotel.dto;
+
+public class HotelSearchResult {
+    private Long id;
+    private String name;
+    private String city;
+    private String address;
+
+    public HotelSearchResult() {}
+
+    public HotelSearchResult(Long id, String name, String city, String address) {
+        this.id = id;
+        this.name = name;
+        this.city = city;
+        this.address = address;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getCity() { return city; }
+    public void setCity(String city) { this.city = city; }
+
+    public String getAddress() { return address; }
+    public void setAddress(String address) { this.address = address; }
+}
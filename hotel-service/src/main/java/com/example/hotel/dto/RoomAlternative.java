@@ -0,0 +1,38 @@
+package com.example.hotel.dto;
+
+import java.time.LocalDate;
+
+public class RoomAlternative {
+    public enum Kind { SHIFTED_DATES, OTHER_ROOM }
+
+    private Kind kind;
+    private Long roomId;
+    private String roomNumber;
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    public RoomAlternative() {}
+
+    public RoomAlternative(Kind kind, Long roomId, String roomNumber, LocalDate startDate, LocalDate endDate) {
+        this.kind = kind;
+        this.roomId = roomId;
+        this.roomNumber = roomNumber;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    public Kind getKind() { return kind; }
+    public void setKind(Kind kind) { this.kind = kind; }
+
+    public Long getRoomId() { return roomId; }
+    public void setRoomId(Long roomId) { this.roomId = roomId; }
+
+    public String getRoomNumber() { return roomNumber; }
+    public void setRoomNumber(String roomNumber) { this.roomNumber = roomNumber; }
+
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+}
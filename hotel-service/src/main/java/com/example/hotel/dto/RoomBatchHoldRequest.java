@@ -0,0 +1,67 @@
+package com.example.hotel.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDate;
+import java.util.List;
+
+public class RoomBatchHoldRequest {
+    @NotNull(message = "Start date is required")
+    private LocalDate startDate;
+
+    @NotNull(message = "End date is required")
+    private LocalDate endDate;
+
+    @Min(value = 1, message = "Hold TTL must be at least 1 second")
+    private Integer ttlSeconds;
+
+    @Valid
+    @NotEmpty(message = "At least one room is required")
+    @Size(max = 100, message = "At most 100 rooms can be held in one batch")
+    private List<Item> items;
+
+    public RoomBatchHoldRequest() {}
+
+    public RoomBatchHoldRequest(LocalDate startDate, LocalDate endDate, List<Item> items) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.items = items;
+    }
+
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+
+    public Integer getTtlSeconds() { return ttlSeconds; }
+    public void setTtlSeconds(Integer ttlSeconds) { this.ttlSeconds = ttlSeconds; }
+
+    public List<Item> getItems() { return items; }
+    public void setItems(List<Item> items) { this.items = items; }
+
+    public static class Item {
+        @NotNull(message = "Room ID is required")
+        private Long roomId;
+
+        @NotBlank(message = "Request ID is required for idempotency")
+        private String requestId;
+
+        public Item() {}
+
+        public Item(Long roomId, String requestId) {
+            this.roomId = roomId;
+            this.requestId = requestId;
+        }
+
+        public Long getRoomId() { return roomId; }
+        public void setRoomId(Long roomId) { this.roomId = roomId; }
+
+        public String getRequestId() { return requestId; }
+        public void setRequestId(String requestId) { this.requestId = requestId; }
+    }
+}
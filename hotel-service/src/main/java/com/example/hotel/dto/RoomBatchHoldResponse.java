@@ -0,0 +1,52 @@
+package com.example.hotel.dto;
+
+import java.util.List;
+
+public class RoomBatchHoldResponse {
+    private boolean held;
+    private List<Result> results;
+
+    public RoomBatchHoldResponse() {}
+
+    public RoomBatchHoldResponse(boolean held, List<Result> results) {
+        this.held = held;
+        this.results = results;
+    }
+
+    public boolean isHeld() { return held; }
+    public void setHeld(boolean held) { this.held = held; }
+
+    public List<Result> getResults() { return results; }
+    public void setResults(List<Result> results) { this.results = results; }
+
+    // AVAILABLE: the room was free but nothing was held because another room of the batch failed
+    public enum Outcome { HELD, EXISTING, AVAILABLE, UNAVAILABLE, NOT_FOUND, DUPLICATE_ROOM }
+
+    public static class Result {
+        private Long roomId;
+        private String requestId;
+        private Outcome outcome;
+        private RoomLockResponse lock;
+
+        public Result() {}
+
+        public Result(Long roomId, String requestId, Outcome outcome, RoomLockResponse lock) {
+            this.roomId = roomId;
+            this.requestId = requestId;
+            this.outcome = outcome;
+            this.lock = lock;
+        }
+
+        public Long getRoomId() { return roomId; }
+        public void setRoomId(Long roomId) { this.roomId = roomId; }
+
+        public String getRequestId() { return requestId; }
+        public void setRequestId(String requestId) { this.requestId = requestId; }
+
+        public Outcome getOutcome() { return outcome; }
+        public void setOutcome(Outcome outcome) { this.outcome = outcome; }
+
+        public RoomLockResponse getLock() { return lock; }
+        public void setLock(RoomLockResponse lock) { this.lock = lock; }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.hotel.dto;
+
+import jakarta.validation.constraints.Min;
+
+/**
+ * Filter (all optional) selecting the rooms, and the new values (at least one) to set on them.
+ */
+public class RoomBulkUpdateRequest {
+    private Long hotelId;
+
+    private Integer minCapacity;
+
+    private Integer maxCapacity;
+
+    private Boolean currentlyAvailable;
+
+    private Boolean available;
+
+    @Min(value = 1, message = "Capacity must be at least 1")
+    private Integer capacity;
+
+    public RoomBulkUpdateRequest() {}
+
+    public Long getHotelId() { return hotelId; }
+    public void setHotelId(Long hotelId) { this.hotelId = hotelId; }
+
+    public Integer getMinCapacity() { return minCapacity; }
+    public void setMinCapacity(Integer minCapacity) { this.minCapacity = minCapacity; }
+
+    public Integer getMaxCapacity() { return maxCapacity; }
+    public void setMaxCapacity(Integer maxCapacity) { this.maxCapacity = maxCapacity; }
+
+    public Boolean getCurrentlyAvailable() { return currentlyAvailable; }
+    public void setCurrentlyAvailable(Boolean currentlyAvailable) { this.currentlyAvailable = currentlyAvailable; }
+
+    public Boolean getAvailable() { return available; }
+    public void setAvailable(Boolean available) { this.available = available; }
+
+    public Integer getCapacity() { return capacity; }
+    public void setCapacity(Integer capacity) { this.capacity = capacity; }
+}
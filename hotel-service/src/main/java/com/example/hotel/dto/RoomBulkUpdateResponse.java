@@ -0,0 +1,14 @@
+package com.example.hotel.dto;
+
+public class RoomBulkUpdateResponse {
+    private int updated;
+
+    public RoomBulkUpdateResponse() {}
+
+    public RoomBulkUpdateResponse(int updated) {
+        this.updated = updated;
+    }
+
+    public int getUpdated() { return updated; }
+    public void setUpdated(int updated) { this.updated = updated; }
+}
@@ -1,5 +1,6 @@
 package com.example.hotel.dto;
 
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.time.LocalDate;
@@ -14,6 +15,10 @@ public class RoomHoldRequest {
     @NotNull(message = "End date is required")
     private LocalDate endDate;
 
+    // Optional hold lifetime; the service default applies when absent
+    @Min(value = 1, message = "Hold TTL must be at least 1 second")
+    private Integer ttlSeconds;
+
     public RoomHoldRequest() {}
 
     public RoomHoldRequest(String requestId, LocalDate startDate, LocalDate endDate) {
@@ -30,4 +35,7 @@ public class RoomHoldRequest {
 
     public LocalDate getEndDate() { return endDate; }
     public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+
+    public Integer getTtlSeconds() { return ttlSeconds; }
+    public void setTtlSeconds(Integer ttlSeconds) { this.ttlSeconds = ttlSeconds; }
 }
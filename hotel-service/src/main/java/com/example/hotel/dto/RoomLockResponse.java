@@ -1,6 +1,7 @@
 package com.example.hotel.dto;
 
 import com.example.hotel.model.RoomReservationLock;
+import java.time.Instant;
 import java.time.LocalDate;
 
 public class RoomLockResponse {
@@ -10,6 +11,7 @@ public class RoomLockResponse {
     private LocalDate startDate;
     private LocalDate endDate;
     private String status;
+    private Instant expiresAt;
 
     public RoomLockResponse() {}
 
@@ -21,6 +23,7 @@ public class RoomLockResponse {
         response.setStartDate(lock.getStartDate());
         response.setEndDate(lock.getEndDate());
         response.setStatus(lock.getStatus().name());
+        response.setExpiresAt(lock.getExpiresAt());
         return response;
     }
 
@@ -41,4 +44,7 @@ public class RoomLockResponse {
 
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
+
+    public Instant getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; }
 }
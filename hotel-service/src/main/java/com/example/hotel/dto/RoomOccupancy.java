@@ -0,0 +1,37 @@
+package com.example.hotel.dto;
+
+import java.util.List;
+
+public class RoomOccupancy {
+    private Long roomId;
+    private String number;
+    private String roomType;
+    private boolean available;
+    // Occupied nights as [offset from the first night, length] runs, in date order
+    private List<int[]> occupied;
+
+    public RoomOccupancy() {}
+
+    public RoomOccupancy(Long roomId, String number, String roomType, boolean available, List<int[]> occupied) {
+        this.roomId = roomId;
+        this.number = number;
+        this.roomType = roomType;
+        this.available = available;
+        this.occupied = occupied;
+    }
+
+    public Long getRoomId() { return roomId; }
+    public void setRoomId(Long roomId) { this.roomId = roomId; }
+
+    public String getNumber() { return number; }
+    public void setNumber(String number) { this.number = number; }
+
+    public String getRoomType() { return roomType; }
+    public void setRoomType(String roomType) { this.roomType = roomType; }
+
+    public boolean isAvailable() { return available; }
+    public void setAvailable(boolean available) { this.available = available; }
+
+    public List<int[]> getOccupied() { return occupied; }
+    public void setOccupied(List<int[]> occupied) { this.occupied = occupied; }
+}
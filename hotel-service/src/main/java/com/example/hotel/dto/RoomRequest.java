@@ -18,6 +18,9 @@ public class RoomRequest {
 
     private Long hotelId;
 
+    @Size(max = 50, message = "Room type must be at most 50 characters")
+    private String roomType;
+
     public RoomRequest() {}
 
     public RoomRequest(String number, Integer capacity, Boolean available, Long hotelId) {
@@ -38,4 +41,7 @@ public class RoomRequest {
 
     public Long getHotelId() { return hotelId; }
     public void setHotelId(Long hotelId) { this.hotelId = hotelId; }
+
+    public String getRoomType() { return roomType; }
+    public void setRoomType(String roomType) { this.roomType = roomType; }
 }
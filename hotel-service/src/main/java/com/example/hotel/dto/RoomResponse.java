@@ -2,49 +2,51 @@ package com.example.hotel.dto;
 
 import com.example.hotel.model.Room;
 
-public class RoomResponse {
-    private Long id;
-    private String number;
-    private int capacity;
-    private long timesBooked;
-    private boolean available;
-    private Long hotelId;
-    private String hotelName;
-
-    public RoomResponse() {}
+// Immutable: the same instance is handed out from the rooms cache to every caller
+public final class RoomResponse {
+    private final Long id;
+    private final String number;
+    private final int capacity;
+    private final long timesBooked;
+    private final boolean available;
+    private final Long hotelId;
+    private final String hotelName;
+    private final String roomType;
+
+    // Used by the constructor-expression queries in RoomRepository
+    public RoomResponse(Long id, String number, int capacity, long timesBooked, boolean available,
+                        Long hotelId, String hotelName, String roomType) {
+        this.id = id;
+        this.number = number;
+        this.capacity = capacity;
+        this.timesBooked = timesBooked;
+        this.available = available;
+        this.hotelId = hotelId;
+        this.hotelName = hotelName;
+        this.roomType = roomType;
+    }
 
     public static RoomResponse fromEntity(Room room) {
-        RoomResponse response = new RoomResponse();
-        response.setId(room.getId());
-        response.setNumber(room.getNumber());
-        response.setCapacity(room.getCapacity());
-        response.setTimesBooked(room.getTimesBooked());
-        response.setAvailable(room.isAvailable());
-        if (room.getHotel() != null) {
-            response.setHotelId(room.getHotel().getId());
-            response.setHotelName(room.getHotel().getName());
-        }
-        return response;
+        return new RoomResponse(room.getId(), room.getNumber(), room.getCapacity(), room.getTimesBooked(),
+                room.isAvailable(),
+                room.getHotel() != null ? room.getHotel().getId() : null,
+                room.getHotel() != null ? room.getHotel().getName() : null,
+                room.getRoomType());
     }
 
     public Long getId() { return id; }
-    public void setId(Long id) { this.id = id; }
 
     public String getNumber() { return number; }
-    public void setNumber(String number) { this.number = number; }
 
     public int getCapacity() { return capacity; }
-    public void setCapacity(int capacity) { this.capacity = capacity; }
 
     public long getTimesBooked() { return timesBooked; }
-    public void setTimesBooked(long timesBooked) { this.timesBooked = timesBooked; }
 
     public boolean isAvailable() { return available; }
-    public void setAvailable(boolean available) { this.available = available; }
 
     public Long getHotelId() { return hotelId; }
-    public void setHotelId(Long hotelId) { this.hotelId = hotelId; }
 
     public String getHotelName() { return hotelName; }
-    public void setHotelName(String hotelName) { this.hotelName = hotelName; }
+
+    public String getRoomType() { return roomType; }
 }
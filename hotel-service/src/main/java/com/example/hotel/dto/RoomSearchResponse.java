@@ -0,0 +1,21 @@
+package com.example.hotel.dto;
+
+import java.util.List;
+
+public class RoomSearchResponse {
+    private List<RoomResponse> rooms;
+    private Long nextAfter;
+
+    public RoomSearchResponse() {}
+
+    public RoomSearchResponse(List<RoomResponse> rooms, Long nextAfter) {
+        this.rooms = rooms;
+        this.nextAfter = nextAfter;
+    }
+
+    public List<RoomResponse> getRooms() { return rooms; }
+    public void setRooms(List<RoomResponse> rooms) { this.rooms = rooms; }
+
+    public Long getNextAfter() { return nextAfter; }
+    public void setNextAfter(Long nextAfter) { this.nextAfter = nextAfter; }
+}
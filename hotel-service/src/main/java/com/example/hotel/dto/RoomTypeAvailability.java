@@ -0,0 +1,24 @@
+package com.example.hotel.dto;
+
+public class RoomTypeAvailability {
+    private String roomType;
+    private int units;
+    private int available;
+
+    public RoomTypeAvailability() {}
+
+    public RoomTypeAvailability(String roomType, int units, int available) {
+        this.roomType = roomType;
+        this.units = units;
+        this.available = available;
+    }
+
+    public String getRoomType() { return roomType; }
+    public void setRoomType(String roomType) { this.roomType = roomType; }
+
+    public int getUnits() { return units; }
+    public void setUnits(int units) { this.units = units; }
+
+    public int getAvailable() { return available; }
+    public void setAvailable(int available) { this.available = available; }
+}
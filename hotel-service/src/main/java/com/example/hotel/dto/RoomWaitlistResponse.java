@@ -0,0 +1,44 @@
+package com.example.hotel.dto;
+
+import com.example.hotel.model.RoomWaitlistEntry;
+import java.time.LocalDate;
+
+public class RoomWaitlistResponse {
+    private Long id;
+    private String requestId;
+    private Long roomId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String status;
+
+    public RoomWaitlistResponse() {}
+
+    public static RoomWaitlistResponse fromEntity(RoomWaitlistEntry entry) {
+        RoomWaitlistResponse response = new RoomWaitlistResponse();
+        response.setId(entry.getId());
+        response.setRequestId(entry.getRequestId());
+        response.setRoomId(entry.getRoomId());
+        response.setStartDate(entry.getStartDate());
+        response.setEndDate(entry.getEndDate());
+        response.setStatus(entry.getStatus().name());
+        return response;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getRequestId() { return requestId; }
+    public void setRequestId(String requestId) { this.requestId = requestId; }
+
+    public Long getRoomId() { return roomId; }
+    public void setRoomId(Long roomId) { this.roomId = roomId; }
+
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+}
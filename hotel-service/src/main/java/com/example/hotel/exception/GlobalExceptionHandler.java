@@ -1,5 +1,7 @@
 package com.example.hotel.exception;
 
+import com.example.hotel.dto.RoomAlternative;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
@@ -11,7 +13,9 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.time.OffsetDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -58,6 +62,7 @@ public class GlobalExceptionHandler {
                 null,
                 OffsetDateTime.now()
         );
+        response.setAlternatives(ex.getAlternatives());
         
         log.warn("Room unavailable: {}", ex.getMessage());
         return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
@@ -89,6 +94,19 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(response);
     }
 
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ErrorResponse> handleRejectedExecutionException(RejectedExecutionException ex) {
+        ErrorResponse response = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                ex.getMessage(),
+                null,
+                OffsetDateTime.now()
+        );
+        
+        log.warn("Rejected: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(Exception ex) {
         ErrorResponse response = new ErrorResponse(
@@ -107,6 +125,8 @@ public class GlobalExceptionHandler {
         private String message;
         private Map<String, String> errors;
         private OffsetDateTime timestamp;
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private List<RoomAlternative> alternatives;
 
         public ErrorResponse(int status, String message, Map<String, String> errors, OffsetDateTime timestamp) {
             this.status = status;
@@ -126,5 +146,8 @@ public class GlobalExceptionHandler {
 
         public OffsetDateTime getTimestamp() { return timestamp; }
         public void setTimestamp(OffsetDateTime timestamp) { this.timestamp = timestamp; }
+
+        public List<RoomAlternative> getAlternatives() { return alternatives; }
+        public void setAlternatives(List<RoomAlternative> alternatives) { this.alternatives = alternatives; }
     }
 }
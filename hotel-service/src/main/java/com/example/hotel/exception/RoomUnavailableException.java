@@ -1,7 +1,23 @@
 package com.example.hotel.exception;
 
+import com.example.hotel.dto.RoomAlternative;
+
+import java.util.List;
+
 public class RoomUnavailableException extends RuntimeException {
+    // Suggestions for the client instead of probing other rooms and dates; null when none were computed
+    private final List<RoomAlternative> alternatives;
+
     public RoomUnavailableException(String message) {
+        this(message, null);
+    }
+
+    public RoomUnavailableException(String message, List<RoomAlternative> alternatives) {
         super(message);
+        this.alternatives = alternatives;
+    }
+
+    public List<RoomAlternative> getAlternatives() {
+        return alternatives;
     }
 }
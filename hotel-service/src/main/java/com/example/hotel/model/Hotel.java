@@ -3,17 +3,26 @@ package com.example.hotel.model;
 import jakarta.persistence.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_hotel_city_key", columnList = "cityKey")
+})
 public class Hotel {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence: ids are handed out in blocks, so inserts can be batched (IDENTITY cannot)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "hotel_seq")
+    @SequenceGenerator(name = "hotel_seq", sequenceName = "hotel_seq", allocationSize = 50)
     private Long id;
 
     private String name;
 
     private String city;
 
+    // Case-folded copy of city, so that city search is an index lookup instead of lower(city)
+    private String cityKey;
+
     private String address;
 
     @OneToMany(mappedBy = "hotel", cascade = CascadeType.ALL, orphanRemoval = true)
@@ -24,11 +33,19 @@ public class Hotel {
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
     public String getCity() { return city; }
-    public void setCity(String city) { this.city = city; }
+    public void setCity(String city) {
+        this.city = city;
+        this.cityKey = cityKey(city);
+    }
+    public String getCityKey() { return cityKey; }
     public String getAddress() { return address; }
     public void setAddress(String address) { this.address = address; }
     public List<Room> getRooms() { return rooms; }
     public void setRooms(List<Room> rooms) { this.rooms = rooms; }
+
+    public static String cityKey(String city) {
+        return city == null ? null : city.trim().toLowerCase(Locale.ROOT);
+    }
 }
 
 
@@ -5,7 +5,8 @@ import jakarta.persistence.*;
 @Entity
 public class Room {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "room_seq")
+    @SequenceGenerator(name = "room_seq", sequenceName = "room_seq", allocationSize = 50)
     private Long id;
 
     private String number;
@@ -16,6 +17,10 @@ public class Room {
 
     private boolean available = true;
 
+    // Rooms of the same type in a hotel are interchangeable and can be held by type
+    @Column(length = 50)
+    private String roomType;
+
     @ManyToOne(fetch = FetchType.LAZY)
     private Hotel hotel;
 
@@ -29,6 +34,8 @@ public class Room {
     public void setTimesBooked(long timesBooked) { this.timesBooked = timesBooked; }
     public boolean isAvailable() { return available; }
     public void setAvailable(boolean available) { this.available = available; }
+    public String getRoomType() { return roomType; }
+    public void setRoomType(String roomType) { this.roomType = roomType; }
     public Hotel getHotel() { return hotel; }
     public void setHotel(Hotel hotel) { this.hotel = hotel; }
 }
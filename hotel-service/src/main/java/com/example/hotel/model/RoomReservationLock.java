@@ -1,15 +1,20 @@
 package com.example.hotel.model;
 
 import jakarta.persistence.*;
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
+// requestId lookups are served by the unique constraint's index
 @Table(uniqueConstraints = {
         @UniqueConstraint(name = "uk_lock_request", columnNames = {"requestId"})
+}, indexes = {
+        @Index(name = "idx_lock_room_status_dates", columnList = "roomId, status, startDate, endDate")
 })
 public class RoomReservationLock {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "room_reservation_lock_seq")
+    @SequenceGenerator(name = "room_reservation_lock_seq", sequenceName = "room_reservation_lock_seq", allocationSize = 50)
     private Long id;
 
     private String requestId;
@@ -23,6 +28,8 @@ public class RoomReservationLock {
     @Enumerated(EnumType.STRING)
     private Status status;
 
+    private Instant expiresAt;
+
     public enum Status { HELD, RELEASED, CONFIRMED }
 
     public Long getId() { return id; }
@@ -37,6 +44,8 @@ public class RoomReservationLock {
     public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
     public Status getStatus() { return status; }
     public void setStatus(Status status) { this.status = status; }
+    public Instant getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; }
 }
 
 
@@ -0,0 +1,51 @@
+package com.example.hotel.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Archived reservation locks: RELEASED holds and past stays moved out of the live lock table.
+ * Rows keep the id they had in {@link RoomReservationLock}.
+ */
+@Entity
+@Table(name = "room_reservation_lock_history", indexes = {
+        @Index(name = "idx_lock_history_request", columnList = "requestId"),
+        @Index(name = "idx_lock_history_room_dates", columnList = "roomId, startDate")
+})
+public class RoomReservationLockHistory {
+    @Id
+    private Long id;
+
+    private String requestId;
+
+    private Long roomId;
+
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    @Enumerated(EnumType.STRING)
+    private RoomReservationLock.Status status;
+
+    private Instant expiresAt;
+
+    private Instant archivedAt;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getRequestId() { return requestId; }
+    public void setRequestId(String requestId) { this.requestId = requestId; }
+    public Long getRoomId() { return roomId; }
+    public void setRoomId(Long roomId) { this.roomId = roomId; }
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+    public RoomReservationLock.Status getStatus() { return status; }
+    public void setStatus(RoomReservationLock.Status status) { this.status = status; }
+    public Instant getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; }
+    public Instant getArchivedAt() { return archivedAt; }
+    public void setArchivedAt(Instant archivedAt) { this.archivedAt = archivedAt; }
+}
@@ -0,0 +1,55 @@
+package com.example.hotel.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.time.LocalDate;
+
+@Entity
+// requestId is the booking's idempotency key; the granted hold is created under the same requestId
+@Table(uniqueConstraints = {
+        @UniqueConstraint(name = "uk_waitlist_request", columnNames = {"requestId"})
+}, indexes = {
+        @Index(name = "idx_waitlist_room_status", columnList = "roomId, status")
+})
+public class RoomWaitlistEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "room_waitlist_seq")
+    @SequenceGenerator(name = "room_waitlist_seq", sequenceName = "room_waitlist_seq", allocationSize = 50)
+    private Long id;
+
+    private String requestId;
+
+    private Long roomId;
+
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    private Integer ttlSeconds;
+
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    private Instant createdAt;
+
+    // NOTIFYING: the hold is placed but booking-service has not acknowledged it yet. It ends as
+    // GRANTED, or EXPIRED when the hold ended before booking-service took it over
+    public enum Status { WAITING, NOTIFYING, GRANTED, EXPIRED, CANCELLED }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getRequestId() { return requestId; }
+    public void setRequestId(String requestId) { this.requestId = requestId; }
+    public Long getRoomId() { return roomId; }
+    public void setRoomId(Long roomId) { this.roomId = roomId; }
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+    public Integer getTtlSeconds() { return ttlSeconds; }
+    public void setTtlSeconds(Integer ttlSeconds) { this.ttlSeconds = ttlSeconds; }
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+}
@@ -1,9 +1,41 @@
 package com.example.hotel.repo;
 
+import com.example.hotel.dto.HotelResponse;
 import com.example.hotel.model.Hotel;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface HotelRepository extends JpaRepository<Hotel, Long> {
-}
+    // Responses are built by the query itself, the room count is an aggregate rather than a collection load
+    String RESPONSE_SELECT = "select new com.example.hotel.dto.HotelResponse(h.id, h.name, h.city, h.address, count(r.id)) " +
+            "from Hotel h left join h.rooms r ";
+    String RESPONSE_GROUP_BY = "group by h.id, h.name, h.city, h.address ";
+
+    @Query(RESPONSE_SELECT + RESPONSE_GROUP_BY + "order by h.id")
+    List<HotelResponse> findAllResponses();
 
+    @Query(RESPONSE_SELECT + "where h.id > :after " + RESPONSE_GROUP_BY + "order by h.id")
+    List<HotelResponse> findResponsesAfter(@Param("after") long after, Pageable page);
 
+    @Query(RESPONSE_SELECT + "where h.id = :id " + RESPONSE_GROUP_BY)
+    Optional<HotelResponse> findResponseById(@Param("id") Long id);
+
+    // Bypasses the rooms cascade: callers delete the rooms with RoomRepository.bulkDeleteByHotelId first
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Hotel h where h.id = :id")
+    int bulkDeleteById(@Param("id") Long id);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(RESPONSE_SELECT + RESPONSE_GROUP_BY + "order by h.id")
+    Stream<HotelResponse> streamAllResponses();
+}
@@ -1,9 +1,100 @@
 package com.example.hotel.repo;
 
+import com.example.hotel.dto.RoomResponse;
 import com.example.hotel.model.Room;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface RoomRepository extends JpaRepository<Room, Long> {
-}
+    // Hotel id and name come from the join, no room entity or lazy hotel proxy is loaded
+    String RESPONSE_SELECT = "select new com.example.hotel.dto.RoomResponse(" +
+            "r.id, r.number, r.capacity, r.timesBooked, r.available, h.id, h.name, r.roomType) " +
+            "from Room r left join r.hotel h ";
+
+    @Query(RESPONSE_SELECT + "order by r.id")
+    List<RoomResponse> findAllResponses();
+
+    @Query(RESPONSE_SELECT + "where r.id > :after order by r.id")
+    List<RoomResponse> findResponsesAfter(@Param("after") long after, Pageable page);
+
+    @Query(RESPONSE_SELECT + "where r.id = :id")
+    Optional<RoomResponse> findResponseById(@Param("id") Long id);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(RESPONSE_SELECT + "order by r.id")
+    Stream<RoomResponse> streamAllResponses();
+
+    long countByHotelId(Long hotelId);
+
+    @Query(RESPONSE_SELECT + "where h.id = :hotelId order by r.id")
+    List<RoomResponse> findResponsesByHotelId(@Param("hotelId") Long hotelId);
+
+    // Bookable rooms interchangeable with the given one: same hotel, same capacity
+    @Query(RESPONSE_SELECT + "where h.id = :hotelId and r.capacity = :capacity and r.available = true " +
+            "and r.id <> :roomId order by r.id")
+    List<RoomResponse> findSimilarRooms(@Param("hotelId") Long hotelId, @Param("capacity") int capacity,
+                                        @Param("roomId") Long roomId, Pageable page);
 
+    // Id, hotel id and type of every bookable typed room, to load the type inventory
+    String TYPED_ROOMS = "select r.id, r.hotel.id, r.roomType from Room r " +
+            "where r.roomType is not null and r.hotel is not null and r.available = true";
 
+    @Query(TYPED_ROOMS)
+    List<Object[]> findTypedRooms();
+
+    @Query("select r.id from Room r where r.hotel.id = :hotelId")
+    List<Long> findIdsByHotelId(@Param("hotelId") Long hotelId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Room r where r.hotel.id = :hotelId")
+    int bulkDeleteByHotelId(@Param("hotelId") Long hotelId);
+
+    // Every filter is optional: a null parameter matches all rooms
+    String BULK_FILTER = "where (:hotelId is null or r.hotel.id = :hotelId) " +
+            "and (:minCapacity is null or r.capacity >= :minCapacity) " +
+            "and (:maxCapacity is null or r.capacity <= :maxCapacity) " +
+            "and (:currentlyAvailable is null or r.available = :currentlyAvailable)";
+
+    // A null new value leaves the column as it is
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Room r set r.available = coalesce(:available, r.available), " +
+            "r.capacity = coalesce(:capacity, r.capacity) " + BULK_FILTER)
+    int bulkUpdateMatching(@Param("hotelId") Long hotelId,
+                           @Param("minCapacity") Integer minCapacity,
+                           @Param("maxCapacity") Integer maxCapacity,
+                           @Param("currentlyAvailable") Boolean currentlyAvailable,
+                           @Param("available") Boolean available,
+                           @Param("capacity") Integer capacity);
+
+    // Id, hotel id, type, availability and capacity of the rooms matching the filter
+    @Query("select r.id, r.hotel.id, r.roomType, r.available, r.capacity from Room r " + BULK_FILTER)
+    List<Object[]> findStatesMatching(@Param("hotelId") Long hotelId,
+                                      @Param("minCapacity") Integer minCapacity,
+                                      @Param("maxCapacity") Integer maxCapacity,
+                                      @Param("currentlyAvailable") Boolean currentlyAvailable);
+
+    @Query("select r from Room r left join fetch r.hotel")
+    List<Room> findAllWithHotel();
+
+    @Query("select r.id from Room r where r.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select r from Room r join fetch r.hotel h " +
+            "where h.cityKey = :cityKey and r.capacity >= :capacity and r.available = true and r.id > :after " +
+            "order by r.id")
+    List<Room> findSearchCandidates(@Param("cityKey") String cityKey,
+                                    @Param("capacity") int capacity,
+                                    @Param("after") long after,
+                                    Pageable page);
+}
@@ -2,19 +2,32 @@ package com.example.hotel.repo;
 
 import com.example.hotel.model.RoomReservationLock;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-import java.time.LocalDate;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface RoomReservationLockRepository extends JpaRepository<RoomReservationLock, Long> {
     Optional<RoomReservationLock> findByRequestId(String requestId);
-    List<RoomReservationLock> findByRoomIdAndStatusInAndStartDateLessThanEqualAndEndDateGreaterThanEqual(
-            Long roomId,
-            List<RoomReservationLock.Status> statuses,
-            LocalDate endInclusive,
-            LocalDate startInclusive
+    List<RoomReservationLock> findByRequestIdIn(Collection<String> requestIds);
+    List<RoomReservationLock> findByStatusIn(Collection<RoomReservationLock.Status> statuses);
+    List<RoomReservationLock> findByRequestIdInAndStatusAndExpiresAtLessThanEqual(
+            Collection<String> requestIds,
+            RoomReservationLock.Status status,
+            Instant expiresAt
     );
-}
 
+    @Modifying
+    @Query("update RoomReservationLock l set l.status = :to where l.id in :ids and l.status = :from")
+    int updateStatus(@Param("ids") Collection<Long> ids,
+                     @Param("from") RoomReservationLock.Status from,
+                     @Param("to") RoomReservationLock.Status to);
 
+    @Modifying
+    @Query("delete from RoomReservationLock l where l.roomId in :roomIds")
+    int deleteByRoomIds(@Param("roomIds") Collection<Long> roomIds);
+}
@@ -0,0 +1,40 @@
+package com.example.hotel.repo;
+
+import com.example.hotel.model.RoomWaitlistEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface RoomWaitlistRepository extends JpaRepository<RoomWaitlistEntry, Long> {
+    Optional<RoomWaitlistEntry> findByRequestId(String requestId);
+
+    // Waiters of the room in arrival order
+    List<RoomWaitlistEntry> findByRoomIdAndStatusOrderById(Long roomId, RoomWaitlistEntry.Status status);
+
+    boolean existsByRoomIdAndStatus(Long roomId, RoomWaitlistEntry.Status status);
+
+    List<RoomWaitlistEntry> findByStatusOrderById(RoomWaitlistEntry.Status status);
+
+    // Runs outside any service transaction: called when booking-service acknowledges a notification
+    @Transactional
+    @Modifying
+    @Query("update RoomWaitlistEntry w set w.status = :to where w.requestId = :requestId and w.status = :from")
+    int updateStatus(@Param("requestId") String requestId,
+                     @Param("from") RoomWaitlistEntry.Status from,
+                     @Param("to") RoomWaitlistEntry.Status to);
+
+    @Modifying
+    @Query("update RoomWaitlistEntry w set w.status = :to where w.roomId in :roomIds and w.status = :from")
+    int updateStatusOfRooms(@Param("roomIds") Collection<Long> roomIds,
+                            @Param("from") RoomWaitlistEntry.Status from,
+                            @Param("to") RoomWaitlistEntry.Status to);
+
+    @Query("select distinct w.roomId from RoomWaitlistEntry w where w.status = :status")
+    List<Long> findRoomIdsByStatus(@Param("status") RoomWaitlistEntry.Status status);
+}
@@ -0,0 +1,52 @@
+package com.example.hotel.security;
+
+import com.example.hotel.constants.SecurityConstants;
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Bearer token for calls hotel-service makes on its own behalf, e.g. waitlist notifications to
+ * booking-service. It is signed with the shared JWT secret and carries the SERVICE scope instead
+ * of a user; one token is reused until half of its lifetime is left.
+ */
+@Component
+public class ServiceTokenProvider {
+    private final JwtEncoder encoder;
+    private final long ttlSeconds;
+    private volatile Token current;
+
+    private record Token(String value, Instant renewAt) {}
+
+    public ServiceTokenProvider(@Value("${security.jwt.secret:dev-secret-please-change}") String secret,
+                                @Value("${security.service-token.ttl-seconds:300}") long ttlSeconds) {
+        this.encoder = new NimbusJwtEncoder(new ImmutableSecret<>(JwtSecretKeyProvider.getHmacKey(secret)));
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    public String token() {
+        Token token = current;
+        Instant now = Instant.now();
+        if (token == null || now.isAfter(token.renewAt())) {
+            JwtClaimsSet claims = JwtClaimsSet.builder()
+                    .subject(SecurityConstants.SERVICE_SUBJECT)
+                    .claim(SecurityConstants.SCOPE_CLAIM, SecurityConstants.SCOPE_SERVICE)
+                    .issuedAt(now)
+                    .expiresAt(now.plusSeconds(ttlSeconds))
+                    .build();
+            String value = encoder.encode(JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS256).build(), claims))
+                    .getTokenValue();
+            token = new Token(value, now.plusSeconds(ttlSeconds / 2));
+            current = token;
+        }
+        return token.value();
+    }
+}
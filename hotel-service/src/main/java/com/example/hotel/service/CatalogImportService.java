@@ -0,0 +1,361 @@
+package com.example.hotel.service;
+
+import com.example.hotel.dto.CatalogImportResult;
+import com.example.hotel.dto.CatalogImportRow;
+import com.example.hotel.dto.CatalogImportSummary;
+import com.example.hotel.dto.HotelRequest;
+import com.example.hotel.dto.RoomRequest;
+import com.example.hotel.model.Hotel;
+import com.example.hotel.model.Room;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk catalog import from NDJSON or CSV. The body is parsed one record (a hotel with its rooms) at
+ * a time and valid records are written in chunks, each chunk in its own transaction that is flushed
+ * and cleared before commit. A result line per record is written back as soon as its chunk is done,
+ * so neither the body nor the persistence context grows beyond one chunk. A chunk that fails to
+ * commit is retried record by record, so a row the database rejects fails alone.
+ */
+@Service
+public class CatalogImportService {
+    private static final Logger log = LoggerFactory.getLogger(CatalogImportService.class);
+    static final int CHUNK_ENTITIES = 500;
+    static final List<String> CSV_HEADER = List.of("name", "city", "address", "number", "capacity", "available");
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final HotelSearchIndex searchIndex;
+    private final PopularRoomsLeaderboard leaderboard;
+    private final CatalogSnapshot catalogSnapshot;
+    private final RoomTypeInventory roomTypeInventory;
+
+    public CatalogImportService(EntityManager entityManager,
+                                TransactionTemplate transactionTemplate,
+                                Validator validator,
+                                ObjectMapper objectMapper,
+                                HotelSearchIndex searchIndex,
+                                PopularRoomsLeaderboard leaderboard,
+                                CatalogSnapshot catalogSnapshot,
+                                RoomTypeInventory roomTypeInventory) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.searchIndex = searchIndex;
+        this.leaderboard = leaderboard;
+        this.catalogSnapshot = catalogSnapshot;
+        this.roomTypeInventory = roomTypeInventory;
+    }
+
+    // A parsed record: either a valid row or the errors that rejected it
+    private record Record(long line, CatalogImportRow row, Map<String, String> errors) {}
+
+    private interface RecordSource {
+        Record next() throws IOException;
+    }
+
+    /**
+     * One JSON object per line: {@code {"name", "city", "address", "rooms": [{"number", "capacity", "available"}]}}.
+     */
+    public CatalogImportSummary importNdjson(InputStream in, OutputStream out) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        long[] line = {0};
+        return run(() -> {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line[0]++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                try {
+                    return validated(line[0], objectMapper.readValue(text, CatalogImportRow.class));
+                } catch (JsonProcessingException e) {
+                    return new Record(line[0], null, Map.of("line", e.getOriginalMessage()));
+                }
+            }
+            return null;
+        }, out);
+    }
+
+    /**
+     * A header row of {@link #CSV_HEADER}, then one room per row. Consecutive rows with the same
+     * name, city and address belong to one hotel; a row with no room number creates the hotel only.
+     */
+    public CatalogImportSummary importCsv(InputStream in, OutputStream out) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String header = reader.readLine();
+        if (header == null || !parseCsvLine(header).stream()
+                .map(column -> column.trim().toLowerCase(Locale.ROOT)).toList().equals(CSV_HEADER)) {
+            throw new IllegalArgumentException("CSV header must be " + String.join(",", CSV_HEADER));
+        }
+        return run(new CsvSource(reader), out);
+    }
+
+    private CatalogImportSummary run(RecordSource source, OutputStream out) throws IOException {
+        CatalogImportSummary summary = new CatalogImportSummary();
+        List<Record> chunk = new ArrayList<>();
+        int entities = 0;
+        Record record;
+        while ((record = source.next()) != null) {
+            chunk.add(record);
+            entities += record.row() != null ? 1 + record.row().getRooms().size() : 1;
+            if (entities >= CHUNK_ENTITIES) {
+                report(write(chunk), summary, out);
+                chunk.clear();
+                entities = 0;
+            }
+        }
+        report(write(chunk), summary, out);
+        out.write(objectMapper.writeValueAsBytes(summary));
+        out.write('\n');
+        out.flush();
+        log.info("Catalog import finished: {} hotels, {} rooms, {} records rejected",
+                summary.getHotels(), summary.getRooms(), summary.getRejected());
+        return summary;
+    }
+
+    private void report(List<CatalogImportResult> results, CatalogImportSummary summary, OutputStream out) throws IOException {
+        for (CatalogImportResult result : results) {
+            if (result.getStatus() == CatalogImportResult.Status.CREATED) {
+                summary.setHotels(summary.getHotels() + 1);
+                summary.setRooms(summary.getRooms() + result.getRooms());
+            } else {
+                summary.setRejected(summary.getRejected() + 1);
+            }
+            out.write(objectMapper.writeValueAsBytes(result));
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    private List<CatalogImportResult> write(List<Record> chunk) {
+        List<Record> valid = chunk.stream().filter(record -> record.row() != null).toList();
+        Map<Long, Hotel> created = new HashMap<>();
+        Map<Long, String> failed = new HashMap<>();
+        if (!valid.isEmpty()) {
+            try {
+                List<Hotel> hotels = transactionTemplate.execute(status -> persist(valid));
+                for (int i = 0; i < valid.size(); i++) {
+                    created.put(valid.get(i).line(), hotels.get(i));
+                }
+            } catch (RuntimeException e) {
+                if (valid.size() == 1) {
+                    log.warn("Catalog import record at line {} failed", valid.get(0).line(), e);
+                    failed.put(valid.get(0).line(), e.getMessage());
+                } else {
+                    // The chunk is rolled back; its records are retried one transaction each so only the bad one fails
+                    log.warn("Catalog import chunk of {} records failed, retrying them one by one", valid.size(), e);
+                    valid.forEach(record -> writeAlone(record, created, failed));
+                }
+            }
+        }
+        List<CatalogImportResult> results = new ArrayList<>(chunk.size());
+        for (Record record : chunk) {
+            Hotel hotel = created.get(record.line());
+            if (record.row() == null) {
+                results.add(new CatalogImportResult(record.line(), CatalogImportResult.Status.INVALID, null, 0, record.errors()));
+            } else if (hotel == null) {
+                results.add(new CatalogImportResult(record.line(), CatalogImportResult.Status.FAILED, null, 0,
+                        Map.of("record", String.valueOf(failed.get(record.line())))));
+            } else {
+                results.add(new CatalogImportResult(record.line(), CatalogImportResult.Status.CREATED,
+                        hotel.getId(), record.row().getRooms().size(), null));
+            }
+        }
+        return results;
+    }
+
+    private void writeAlone(Record record, Map<Long, Hotel> created, Map<Long, String> failed) {
+        try {
+            created.put(record.line(), transactionTemplate.execute(status -> persist(List.of(record))).get(0));
+        } catch (RuntimeException e) {
+            log.warn("Catalog import record at line {} failed", record.line(), e);
+            failed.put(record.line(), e.getMessage());
+        }
+    }
+
+    private List<Hotel> persist(List<Record> records) {
+        List<Hotel> hotels = new ArrayList<>(records.size());
+        List<PopularRoomsLeaderboard.RankedRoom> ranked = new ArrayList<>();
+        List<Room> typed = new ArrayList<>();
+        for (Record record : records) {
+            Hotel hotel = new Hotel();
+            hotel.setName(record.row().getName());
+            hotel.setCity(record.row().getCity());
+            hotel.setAddress(record.row().getAddress());
+            entityManager.persist(hotel);
+            for (RoomRequest request : record.row().getRooms()) {
+                Room room = new Room();
+                room.setNumber(request.getNumber());
+                room.setCapacity(request.getCapacity());
+                room.setAvailable(request.getAvailable() != null ? request.getAvailable() : true);
+                room.setRoomType(request.getRoomType());
+                room.setHotel(hotel);
+                entityManager.persist(room);
+                ranked.add(PopularRoomsLeaderboard.RankedRoom.of(room));
+                if (room.getRoomType() != null && room.isAvailable()) {
+                    typed.add(room);
+                }
+            }
+            hotels.add(hotel);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        TransactionCallbacks.afterCommit(() -> {
+            hotels.forEach(searchIndex::put);
+            ranked.forEach(leaderboard::put);
+            typed.forEach(room -> roomTypeInventory.putRoom(room.getId(), room.getHotel().getId(), room.getRoomType(), true));
+            catalogSnapshot.invalidate();
+        });
+        return hotels;
+    }
+
+    private Record validated(long line, CatalogImportRow row) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        collect(errors, "", validator.validate(new HotelRequest(row.getName(), row.getCity(), row.getAddress())));
+        if (row.getRooms() == null) {
+            row.setRooms(new ArrayList<>());
+        }
+        for (int i = 0; i < row.getRooms().size(); i++) {
+            RoomRequest room = row.getRooms().get(i);
+            if (room == null) {
+                errors.put("rooms[" + i + "]", "Room is required");
+            } else {
+                collect(errors, "rooms[" + i + "].", validator.validate(room));
+            }
+        }
+        return errors.isEmpty() ? new Record(line, row, null) : new Record(line, null, errors);
+    }
+
+    private static <T> void collect(Map<String, String> errors, String prefix, Set<ConstraintViolation<T>> violations) {
+        violations.forEach(violation -> errors.put(prefix + violation.getPropertyPath(), violation.getMessage()));
+    }
+
+    private class CsvSource implements RecordSource {
+        private final BufferedReader reader;
+        private long line = 1; // the header
+        private List<String> pending;
+        private long pendingLine;
+
+        CsvSource(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public Record next() throws IOException {
+            List<String> first = pending;
+            long firstLine = pendingLine;
+            pending = null;
+            if (first == null) {
+                first = readRow();
+                firstLine = line;
+            }
+            if (first == null) {
+                return null;
+            }
+            if (first.size() != CSV_HEADER.size()) {
+                return new Record(firstLine, null,
+                        Map.of("line", "Expected " + CSV_HEADER.size() + " columns but found " + first.size()));
+            }
+            CatalogImportRow row = new CatalogImportRow(first.get(0), first.get(1), first.get(2));
+            Map<String, String> errors = new LinkedHashMap<>();
+            addRoom(row, first, errors);
+            List<String> next;
+            while ((next = readRow()) != null) {
+                if (next.size() != CSV_HEADER.size() || !next.subList(0, 3).equals(first.subList(0, 3))) {
+                    pending = next;
+                    pendingLine = line;
+                    break;
+                }
+                addRoom(row, next, errors);
+            }
+            return errors.isEmpty() ? validated(firstLine, row) : new Record(firstLine, null, errors);
+        }
+
+        private void addRoom(CatalogImportRow row, List<String> columns, Map<String, String> errors) {
+            String number = columns.get(3).trim();
+            String capacity = columns.get(4).trim();
+            String available = columns.get(5).trim();
+            if (number.isEmpty() && capacity.isEmpty()) {
+                return;
+            }
+            String prefix = "rooms[" + row.getRooms().size() + "].";
+            RoomRequest room = new RoomRequest(number, null, true, null);
+            if (available.equalsIgnoreCase("false")) {
+                room.setAvailable(false);
+            } else if (!available.isEmpty() && !available.equalsIgnoreCase("true")) {
+                errors.put(prefix + "available", "Available must be true or false");
+            }
+            try {
+                room.setCapacity(capacity.isEmpty() ? null : Integer.valueOf(capacity));
+            } catch (NumberFormatException e) {
+                errors.put(prefix + "capacity", "Capacity must be a whole number");
+            }
+            row.getRooms().add(room);
+        }
+
+        private List<String> readRow() throws IOException {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (!text.isBlank()) {
+                    return parseCsvLine(text);
+                }
+            }
+            return null;
+        }
+    }
+
+    // RFC 4180 fields on a single line: quoted fields may contain commas and doubled quotes
+    static List<String> parseCsvLine(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
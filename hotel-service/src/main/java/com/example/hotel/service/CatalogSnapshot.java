@@ -0,0 +1,145 @@
+package com.example.hotel.service;
+
+import com.example.hotel.repo.HotelRepository;
+import com.example.hotel.repo.RoomRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The full hotel and room lists, serialized once and kept as bytes (plain and gzipped) together with
+ * the catalog version they were built from. Every catalog write bumps the version; the next read
+ * finds the snapshot stale, rebuilds it and swaps it in, so unchanged data is served without
+ * touching the database or the serializer.
+ *
+ * The two lists are built and versioned separately. Booking counter flushes only touch the room
+ * list, which carries times_booked, and since they arrive every few seconds under load they make
+ * it stale at most once per {@code hotel.catalog.counter-refresh-ms}; the hotel list is untouched.
+ */
+@Component
+public class CatalogSnapshot {
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long counterRefreshMs;
+    // Seeded from the clock so that an ETag handed out by a previous run never matches this one
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+    private final AtomicLong counterVersion = new AtomicLong();
+    private final Part hotels;
+    private final Part rooms;
+
+    public CatalogSnapshot(HotelRepository hotelRepository,
+                           RoomRepository roomRepository,
+                           ObjectMapper objectMapper,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${hotel.catalog.counter-refresh-ms:5000}") long counterRefreshMs) {
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.counterRefreshMs = counterRefreshMs;
+        this.hotels = new Part("hotels", false, hotelRepository::findAllResponses);
+        this.rooms = new Part("rooms", true, roomRepository::findAllResponses);
+    }
+
+    public record Body(String etag, byte[] json, byte[] gzip) {
+        public String gzipEtag() {
+            return etag.substring(0, etag.length() - 1) + "-gzip\"";
+        }
+    }
+
+    private record Snapshot(long version, long counterVersion, long builtAt, Body body) {}
+
+    private static final class Part {
+        final String name;
+        final boolean countsBookings;
+        final Supplier<List<?>> rows;
+        volatile Snapshot snapshot;
+
+        Part(String name, boolean countsBookings, Supplier<List<?>> rows) {
+            this.name = name;
+            this.countsBookings = countsBookings;
+            this.rows = rows;
+        }
+    }
+
+    public Body hotels() {
+        return current(hotels);
+    }
+
+    public Body rooms() {
+        return current(rooms);
+    }
+
+    /**
+     * Marks both lists stale. Called after a catalog write has committed.
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+    }
+
+    /**
+     * Marks the room list stale after booking counters were written back. Rebuilds for this reason
+     * alone are rate limited.
+     */
+    public void countersChanged() {
+        counterVersion.incrementAndGet();
+    }
+
+    private Body current(Part part) {
+        Snapshot current = part.snapshot;
+        if (current != null && !isStale(part, current)) {
+            return current.body();
+        }
+        synchronized (part) {
+            current = part.snapshot;
+            if (current == null || isStale(part, current)) {
+                // The versions are read before the list: a write that lands while building bumps them
+                // again, so the snapshot is never tagged newer than the data it holds
+                long building = version.get();
+                long buildingCounters = counterVersion.get();
+                String tag = part.countsBookings ? building + "." + buildingCounters : String.valueOf(building);
+                Body body = readOnlyTransaction.execute(status -> body(part.name, tag, part.rows.get()));
+                current = new Snapshot(building, buildingCounters, System.currentTimeMillis(), body);
+                part.snapshot = current;
+            }
+            return current.body();
+        }
+    }
+
+    private boolean isStale(Part part, Snapshot snapshot) {
+        if (snapshot.version() != version.get()) {
+            return true;
+        }
+        return part.countsBookings && snapshot.counterVersion() != counterVersion.get()
+                && System.currentTimeMillis() - snapshot.builtAt() >= counterRefreshMs;
+    }
+
+    private Body body(String name, String version, Object value) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(value);
+            return new Body("\"" + name + "-v" + version + "\"", json, gzip(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize the " + name + " snapshot", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
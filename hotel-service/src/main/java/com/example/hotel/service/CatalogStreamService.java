@@ -0,0 +1,72 @@
+package com.example.hotel.service;
+
+import com.example.hotel.dto.HotelResponse;
+import com.example.hotel.dto.RoomResponse;
+import com.example.hotel.repo.HotelRepository;
+import com.example.hotel.repo.RoomRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.stream.Stream;
+
+/**
+ * Writes the catalog as newline-delimited JSON straight from a database cursor. Rows are read as
+ * response projections, so nothing accumulates in the persistence context and memory use does not
+ * grow with the catalog.
+ */
+@Service
+public class CatalogStreamService {
+    private static final int FLUSH_EVERY = 500;
+
+    private final HotelRepository hotelRepository;
+    private final RoomRepository roomRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public CatalogStreamService(HotelRepository hotelRepository,
+                                RoomRepository roomRepository,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager) {
+        this.hotelRepository = hotelRepository;
+        this.roomRepository = roomRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public void writeHotels(OutputStream out) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<HotelResponse> hotels = hotelRepository.streamAllResponses()) {
+                write(hotels, out);
+            }
+        });
+    }
+
+    public void writeRooms(OutputStream out) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<RoomResponse> rooms = roomRepository.streamAllResponses()) {
+                write(rooms, out);
+            }
+        });
+    }
+
+    private void write(Stream<?> rows, OutputStream out) {
+        int[] written = {0};
+        rows.forEach(row -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(row));
+                out.write('\n');
+                if (++written[0] % FLUSH_EVERY == 0) {
+                    out.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
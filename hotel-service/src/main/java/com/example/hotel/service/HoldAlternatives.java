@@ -0,0 +1,140 @@
+package com.example.hotel.service;
+
+import com.example.hotel.dto.RoomAlternative;
+import com.example.hotel.dto.RoomResponse;
+import com.example.hotel.repo.RoomRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Alternatives offered with a hold conflict, so that a client does not probe rooms and dates one
+ * booking at a time: the same room with the stay shifted by a few days, alternating with other
+ * bookable rooms of the same hotel and capacity for the requested dates. Every check is answered by
+ * {@link RoomAvailabilityCalendar}; the only database access is the room lookup and one bounded
+ * candidate query. The search stops at the time budget and returns what it has found so far.
+ */
+@Component
+public class HoldAlternatives {
+    private static final int MAX_CANDIDATES = 200;
+
+    private final RoomRepository roomRepository;
+    private final RoomAvailabilityCalendar availabilityCalendar;
+    private final long budgetNanos;
+    private final int limit;
+    private final int maxShiftDays;
+    private final Counter budgetExhausted;
+
+    public HoldAlternatives(RoomRepository roomRepository,
+                            RoomAvailabilityCalendar availabilityCalendar,
+                            MeterRegistry meterRegistry,
+                            @Value("${hotel.holds.alternatives.budget-ms:50}") long budgetMillis,
+                            @Value("${hotel.holds.alternatives.limit:3}") int limit,
+                            @Value("${hotel.holds.alternatives.max-shift-days:7}") int maxShiftDays) {
+        this.roomRepository = roomRepository;
+        this.availabilityCalendar = availabilityCalendar;
+        this.budgetNanos = budgetMillis * 1_000_000;
+        this.limit = limit;
+        this.maxShiftDays = maxShiftDays;
+        this.budgetExhausted = Counter.builder("hotel.holds.alternatives.budget.exhausted")
+                .description("Alternative searches cut short by their time budget")
+                .register(meterRegistry);
+    }
+
+    // The time budget of one find, which notes whether any step ran into it
+    private static final class Budget {
+        private final long deadline;
+        private boolean exhausted;
+
+        Budget(long budgetNanos) {
+            this.deadline = System.nanoTime() + budgetNanos;
+        }
+
+        boolean outOfTime() {
+            if (!exhausted && System.nanoTime() - deadline >= 0) {
+                exhausted = true;
+            }
+            return exhausted;
+        }
+    }
+
+    public List<RoomAlternative> find(Long roomId, LocalDate startDate, LocalDate endDate) {
+        Budget budget = new Budget(budgetNanos);
+        if (limit < 1) {
+            return new ArrayList<>();
+        }
+        RoomResponse room = roomRepository.findResponseById(roomId).orElse(null);
+        if (room == null) {
+            return new ArrayList<>();
+        }
+        List<RoomAlternative> shifted = shiftedDates(room, startDate, endDate, budget);
+        List<RoomAlternative> otherRooms = budget.outOfTime()
+                ? List.of()
+                : otherRooms(room, startDate, endDate, budget);
+        if (budget.exhausted) {
+            budgetExhausted.increment();
+        }
+        return interleave(shifted, otherRooms);
+    }
+
+    // Same room, nearest shifts first, later before earlier; never starting in the past
+    private List<RoomAlternative> shiftedDates(RoomResponse room, LocalDate startDate, LocalDate endDate, Budget budget) {
+        List<RoomAlternative> shifted = new ArrayList<>();
+        LocalDate today = LocalDate.now();
+        for (int shift = 1; shift <= maxShiftDays; shift++) {
+            for (int sign : new int[] {1, -1}) {
+                if (shifted.size() >= limit || budget.outOfTime()) {
+                    return shifted;
+                }
+                LocalDate start = startDate.plusDays((long) sign * shift);
+                LocalDate end = endDate.plusDays((long) sign * shift);
+                if (!start.isBefore(today) && availabilityCalendar.isFree(room.getId(), start, end)) {
+                    shifted.add(new RoomAlternative(RoomAlternative.Kind.SHIFTED_DATES,
+                            room.getId(), room.getNumber(), start, end));
+                }
+            }
+        }
+        return shifted;
+    }
+
+    // Other rooms of the hotel that fit the same guests, same dates
+    private List<RoomAlternative> otherRooms(RoomResponse room, LocalDate startDate, LocalDate endDate, Budget budget) {
+        Map<Long, RoomResponse> candidates = new LinkedHashMap<>();
+        roomRepository.findSimilarRooms(room.getHotelId(), room.getCapacity(), room.getId(), PageRequest.of(0, MAX_CANDIDATES))
+                .forEach(candidate -> candidates.put(candidate.getId(), candidate));
+        List<RoomAlternative> otherRooms = new ArrayList<>();
+        if (budget.outOfTime()) {
+            return otherRooms;
+        }
+        for (Long freeRoomId : availabilityCalendar.freeRooms(candidates.keySet(), startDate, endDate)) {
+            if (otherRooms.size() >= limit) {
+                break;
+            }
+            otherRooms.add(new RoomAlternative(RoomAlternative.Kind.OTHER_ROOM,
+                    freeRoomId, candidates.get(freeRoomId).getNumber(), startDate, endDate));
+        }
+        return otherRooms;
+    }
+
+    // Alternates the two kinds so neither crowds the other out; a kind that runs short leaves its slots to the other
+    private List<RoomAlternative> interleave(List<RoomAlternative> shifted, List<RoomAlternative> otherRooms) {
+        List<RoomAlternative> alternatives = new ArrayList<>(limit);
+        for (int i = 0; alternatives.size() < limit && (i < shifted.size() || i < otherRooms.size()); i++) {
+            if (i < shifted.size()) {
+                alternatives.add(shifted.get(i));
+            }
+            if (i < otherRooms.size() && alternatives.size() < limit) {
+                alternatives.add(otherRooms.get(i));
+            }
+        }
+        return alternatives;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.hotel.service;
+
+import com.example.hotel.model.RoomReservationLock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Expires HELD locks whose TTL has passed, so that a booking saga that never confirmed or released
+ * does not block the room forever. Deadlines live in {@link HoldExpiryWheel}; each tick releases
+ * the due holds in set-based batches.
+ */
+@Component
+public class HoldExpiryJob {
+    private static final Logger log = LoggerFactory.getLogger(HoldExpiryJob.class);
+
+    private final HotelService hotelService;
+    private final HoldExpiryWheel wheel;
+    private final ReservationLockStore lockStore;
+    private final int batchSize;
+    private final Duration defaultHoldTtl;
+    private final Counter expiredCounter;
+    private final Timer lagTimer;
+
+    public HoldExpiryJob(HotelService hotelService,
+                         HoldExpiryWheel wheel,
+                         ReservationLockStore lockStore,
+                         MeterRegistry meterRegistry,
+                         @Value("${hotel.holds.expiry.batch-size:500}") int batchSize,
+                         @Value("${hotel.holds.default-ttl-seconds:900}") long defaultHoldTtlSeconds) {
+        this.hotelService = hotelService;
+        this.wheel = wheel;
+        this.lockStore = lockStore;
+        this.batchSize = batchSize;
+        this.defaultHoldTtl = Duration.ofSeconds(defaultHoldTtlSeconds);
+        this.expiredCounter = Counter.builder("hotel.holds.expired")
+                .description("Holds released because their TTL passed")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("hotel.holds.expiry.lag")
+                .description("Delay between a hold deadline and its expiry being processed")
+                .register(meterRegistry);
+        Gauge.builder("hotel.holds.expiry.pending", wheel, HoldExpiryWheel::size)
+                .description("Hold deadlines waiting in the expiry wheel")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void scheduleExistingHolds() {
+        List<RoomReservationLock> held = lockStore.findByStatusIn(List.of(RoomReservationLock.Status.HELD));
+        for (RoomReservationLock lock : held) {
+            // Holds created before TTLs existed get the default lifetime from now
+            if (lock.getExpiresAt() == null) {
+                lock.setExpiresAt(Instant.now().plus(defaultHoldTtl));
+                lockStore.save(lock);
+            }
+            hotelService.scheduleExpiry(lock);
+        }
+        log.info("Scheduled expiry for {} held locks", held.size());
+    }
+
+    @Scheduled(fixedDelayString = "${hotel.holds.expiry.tick-ms:1000}")
+    public void expireDueHolds() {
+        long now = System.currentTimeMillis();
+        List<HoldExpiryWheel.Entry> due = wheel.advance(now);
+        if (due.isEmpty()) {
+            return;
+        }
+        due.forEach(entry -> lagTimer.record(Duration.ofMillis(Math.max(0, now - entry.deadlineMillis()))));
+
+        int expired = 0;
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<HoldExpiryWheel.Entry> batch = due.subList(from, Math.min(due.size(), from + batchSize));
+            try {
+                expired += hotelService.expireHolds(batch);
+            } catch (RuntimeException e) {
+                // Put the batch back so it is retried on a later tick
+                log.error("Failed to expire {} holds, will retry", batch.size(), e);
+                batch.forEach(wheel::schedule);
+            }
+        }
+        expiredCounter.increment(expired);
+        if (expired > 0) {
+            log.info("Expired {} stale holds", expired);
+        }
+    }
+}
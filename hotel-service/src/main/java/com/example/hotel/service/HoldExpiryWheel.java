@@ -0,0 +1,72 @@
+package com.example.hotel.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Hashed timing wheel of hold deadlines. A deadline lands in bucket {@code ceil(deadline / tick) mod size};
+ * advancing the wheel visits only the buckets whose tick has passed, and entries that belong to a
+ * later rotation stay in their bucket until their deadline comes round.
+ */
+@Component
+public class HoldExpiryWheel {
+    private final long tickMillis;
+    private final List<List<Entry>> buckets;
+    private final int mask;
+    private long lastTick;
+    private int size;
+
+    public HoldExpiryWheel(@Value("${hotel.holds.expiry.tick-ms:1000}") long tickMillis,
+                           @Value("${hotel.holds.expiry.wheel-size:512}") int wheelSize) {
+        if (tickMillis < 1 || wheelSize < 1 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Hold expiry wheel needs a positive tick and a power-of-two size");
+        }
+        this.tickMillis = tickMillis;
+        this.mask = wheelSize - 1;
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        this.lastTick = System.currentTimeMillis() / tickMillis;
+    }
+
+    public record Entry(String requestId, Long roomId, long deadlineMillis) {}
+
+    public synchronized void schedule(Entry entry) {
+        // Rounded up so that an entry is always due once its bucket is visited;
+        // deadlines already behind the cursor are picked up on the next advance
+        long tick = Math.max((entry.deadlineMillis() + tickMillis - 1) / tickMillis, lastTick + 1);
+        buckets.get((int) (tick & mask)).add(entry);
+        size++;
+    }
+
+    /**
+     * Moves the cursor to {@code nowMillis} and returns every entry whose deadline has passed.
+     */
+    public synchronized List<Entry> advance(long nowMillis) {
+        long nowTick = nowMillis / tickMillis;
+        long ticks = Math.min(nowTick - lastTick, buckets.size());
+        List<Entry> due = new ArrayList<>();
+        for (long tick = lastTick + 1; tick <= lastTick + ticks; tick++) {
+            Iterator<Entry> it = buckets.get((int) (tick & mask)).iterator();
+            while (it.hasNext()) {
+                Entry entry = it.next();
+                if (entry.deadlineMillis() <= nowMillis) {
+                    due.add(entry);
+                    it.remove();
+                }
+            }
+        }
+        lastTick = Math.max(lastTick, nowTick);
+        size -= due.size();
+        return due;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+}
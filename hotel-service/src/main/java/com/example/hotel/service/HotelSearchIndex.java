@@ -0,0 +1,143 @@
+package com.example.hotel.service;
+
+import com.example.hotel.dto.HotelSearchResult;
+import com.example.hotel.model.Hotel;
+import com.example.hotel.repo.HotelRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index over hotel name, city and address for typeahead search. Text is split into
+ * tokens, lower-cased and stripped of diacritics; tokens are kept sorted so that every token
+ * starting with a query prefix is one contiguous range of the map.
+ *
+ * A query matches a hotel when each of its tokens is a prefix of some token of the hotel. The
+ * longest query token drives the lookup and the others are checked against the hotel's own token
+ * set, so a query costs the size of one prefix range and stops as soon as the limit is reached.
+ * Writers are serialized; readers walk the concurrent maps without locking.
+ */
+@Component
+public class HotelSearchIndex {
+    private static final Logger log = LoggerFactory.getLogger(HotelSearchIndex.class);
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final HotelRepository hotelRepository;
+    private final NavigableMap<String, Set<Long>> hotelsByToken = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    public HotelSearchIndex(HotelRepository hotelRepository) {
+        this.hotelRepository = hotelRepository;
+    }
+
+    private record Entry(HotelSearchResult result, Set<String> tokens) {}
+
+    @PostConstruct
+    void load() {
+        hotelRepository.findAll().forEach(this::put);
+        log.info("Indexed {} hotels under {} search tokens", entries.size(), hotelsByToken.size());
+    }
+
+    public List<HotelSearchResult> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        terms.sort(Comparator.comparingInt(String::length).reversed());
+        String driver = terms.get(0);
+        List<String> others = terms.subList(1, terms.size());
+
+        Set<Long> seen = new HashSet<>();
+        List<HotelSearchResult> found = new ArrayList<>(Math.min(limit, 64));
+        for (Set<Long> ids : hotelsByToken.subMap(driver, true, driver + Character.MAX_VALUE, false).values()) {
+            for (Long id : ids) {
+                Entry entry = entries.get(id);
+                if (entry == null || !seen.add(id) || !matchesAll(entry.tokens(), others)) {
+                    continue;
+                }
+                found.add(entry.result());
+                if (found.size() >= limit) {
+                    return found;
+                }
+            }
+        }
+        return found;
+    }
+
+    public synchronized void put(Hotel hotel) {
+        remove(hotel.getId());
+        Set<String> tokens = new LinkedHashSet<>();
+        tokens.addAll(tokenize(hotel.getName()));
+        tokens.addAll(tokenize(hotel.getCity()));
+        tokens.addAll(tokenize(hotel.getAddress()));
+        HotelSearchResult result = new HotelSearchResult(hotel.getId(), hotel.getName(), hotel.getCity(), hotel.getAddress());
+        entries.put(hotel.getId(), new Entry(result, Set.copyOf(tokens)));
+        for (String token : tokens) {
+            hotelsByToken.computeIfAbsent(token, t -> ConcurrentHashMap.newKeySet()).add(hotel.getId());
+        }
+    }
+
+    public synchronized void remove(Long hotelId) {
+        Entry previous = entries.remove(hotelId);
+        if (previous == null) {
+            return;
+        }
+        for (String token : previous.tokens()) {
+            Set<Long> ids = hotelsByToken.get(token);
+            if (ids != null) {
+                ids.remove(hotelId);
+                if (ids.isEmpty()) {
+                    hotelsByToken.remove(token);
+                }
+            }
+        }
+    }
+
+    private static boolean matchesAll(Set<String> tokens, List<String> prefixes) {
+        for (String prefix : prefixes) {
+            boolean matched = false;
+            for (String token : tokens) {
+                if (token.startsWith(prefix)) {
+                    matched = true;
+                    break;
+                }
+            }
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // "Hôtel Saint-Étienne" -> [hotel, saint, etienne]
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        for (String token : SEPARATORS.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -1,46 +1,137 @@
 package com.example.hotel.service;
 
+import com.example.hotel.constants.CacheNames;
 import com.example.hotel.dto.*;
 import com.example.hotel.exception.ResourceNotFoundException;
 import com.example.hotel.exception.RoomUnavailableException;
 import com.example.hotel.model.Hotel;
 import com.example.hotel.model.Room;
 import com.example.hotel.model.RoomReservationLock;
+import com.example.hotel.model.RoomWaitlistEntry;
 import com.example.hotel.repo.HotelRepository;
 import com.example.hotel.repo.RoomRepository;
-import com.example.hotel.repo.RoomReservationLockRepository;
+import com.example.hotel.repo.RoomWaitlistRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Arrays;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 public class HotelService {
+    private static final int MAX_SEARCH_LIMIT = 100;
+    public static final int MAX_PAGE_LIMIT = 1000;
+    private static final int MAX_MATRIX_NIGHTS = 366;
+
     private final HotelRepository hotelRepository;
     private final RoomRepository roomRepository;
-    private final RoomReservationLockRepository lockRepository;
+    private final ReservationLockStore lockStore;
+    private final RoomIntervalIndex intervalIndex;
+    private final RoomAvailabilityCalendar availabilityCalendar;
+    private final RoomTypeInventory roomTypeInventory;
+    private final RoomLockManager roomLockManager;
+    private final RoomCommandQueues roomCommandQueues;
+    private final HoldExpiryWheel holdExpiryWheel;
+    private final RoomBookingCounters bookingCounters;
+    private final PopularRoomsLeaderboard leaderboard;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final CatalogSnapshot catalogSnapshot;
+    private final HotelSearchIndex searchIndex;
+    private final HoldAlternatives holdAlternatives;
+    private final RoomWaitlist roomWaitlist;
+    private final RoomWaitlistRepository waitlistRepository;
+    private final Duration defaultHoldTtl;
+    private final Duration maxHoldTtl;
+    // A client retry racing its own still-running hold waits for that hold instead of repeating it.
+    // Only the same call is a retry: the same operation on the same room, or hotel and room type.
+    private final SingleFlight<String, RoomLockResponse> holdsInFlight = new SingleFlight<>();
+
+    private record HoldCall(String operation, Long roomId, Long hotelId, String roomType) {}
 
     public HotelService(HotelRepository hotelRepository, 
                        RoomRepository roomRepository, 
-                       RoomReservationLockRepository lockRepository) {
+                       ReservationLockStore lockStore,
+                       RoomIntervalIndex intervalIndex,
+                       RoomAvailabilityCalendar availabilityCalendar,
+                       RoomTypeInventory roomTypeInventory,
+                       RoomLockManager roomLockManager,
+                       RoomCommandQueues roomCommandQueues,
+                       HoldExpiryWheel holdExpiryWheel,
+                       RoomBookingCounters bookingCounters,
+                       PopularRoomsLeaderboard leaderboard,
+                       TransactionTemplate transactionTemplate,
+                       CacheManager cacheManager,
+                       CatalogSnapshot catalogSnapshot,
+                       HotelSearchIndex searchIndex,
+                       HoldAlternatives holdAlternatives,
+                       RoomWaitlist roomWaitlist,
+                       RoomWaitlistRepository waitlistRepository,
+                       @Value("${hotel.holds.default-ttl-seconds:900}") long defaultHoldTtlSeconds,
+                       @Value("${hotel.holds.max-ttl-seconds:3600}") long maxHoldTtlSeconds) {
         this.hotelRepository = hotelRepository;
         this.roomRepository = roomRepository;
-        this.lockRepository = lockRepository;
+        this.lockStore = lockStore;
+        this.intervalIndex = intervalIndex;
+        this.availabilityCalendar = availabilityCalendar;
+        this.roomTypeInventory = roomTypeInventory;
+        this.roomLockManager = roomLockManager;
+        this.roomCommandQueues = roomCommandQueues;
+        this.holdExpiryWheel = holdExpiryWheel;
+        this.bookingCounters = bookingCounters;
+        this.leaderboard = leaderboard;
+        this.transactionTemplate = transactionTemplate;
+        this.cacheManager = cacheManager;
+        this.catalogSnapshot = catalogSnapshot;
+        this.searchIndex = searchIndex;
+        this.holdAlternatives = holdAlternatives;
+        this.roomWaitlist = roomWaitlist;
+        this.waitlistRepository = waitlistRepository;
+        this.defaultHoldTtl = Duration.ofSeconds(defaultHoldTtlSeconds);
+        this.maxHoldTtl = Duration.ofSeconds(maxHoldTtlSeconds);
     }
 
     // Hotel CRUD operations
+    // Read paths use projection queries: one statement however many hotels or rooms are listed
     public List<HotelResponse> listHotels() {
-        return hotelRepository.findAll().stream()
-                .map(HotelResponse::fromEntity)
-                .collect(Collectors.toList());
+        return hotelRepository.findAllResponses();
+    }
+
+    // Keyset page: hotels with id greater than the cursor, in id order
+    public List<HotelResponse> listHotels(Long after, int limit) {
+        return hotelRepository.findResponsesAfter(after != null ? after : 0L, pageOf(limit));
+    }
+
+    // Typeahead over name, city and address, answered from the in-memory index
+    public List<HotelSearchResult> searchHotels(String query, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        return searchIndex.search(query, Math.min(limit, MAX_SEARCH_LIMIT));
     }
 
     public HotelResponse getHotel(Long id) {
-        Hotel hotel = hotelRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Hotel not found with id: " + id));
-        return HotelResponse.fromEntity(hotel);
+        return cached(CacheNames.HOTELS, id, () -> hotelRepository.findResponseById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Hotel not found with id: " + id)));
     }
 
     @Transactional
@@ -51,6 +142,9 @@ public class HotelService {
         hotel.setAddress(request.getAddress());
         
         Hotel savedHotel = hotelRepository.save(hotel);
+        evictAfterCommit(CacheNames.HOTELS, savedHotel.getId());
+        TransactionCallbacks.afterCommit(catalogSnapshot::invalidate);
+        TransactionCallbacks.afterCommit(() -> searchIndex.put(savedHotel));
         return HotelResponse.fromEntity(savedHotel);
     }
 
@@ -64,28 +158,102 @@ public class HotelService {
         hotel.setAddress(request.getAddress());
         
         Hotel updatedHotel = hotelRepository.save(hotel);
-        return HotelResponse.fromEntity(updatedHotel);
+        evictAfterCommit(CacheNames.HOTELS, id);
+        clearAfterCommit(CacheNames.ROOMS); // room responses carry the hotel name
+        TransactionCallbacks.afterCommit(catalogSnapshot::invalidate);
+        TransactionCallbacks.afterCommit(() -> searchIndex.put(updatedHotel));
+        TransactionCallbacks.afterCommit(() ->
+                leaderboard.updateHotel(updatedHotel.getId(), updatedHotel.getName(), updatedHotel.getCity()));
+        return HotelResponse.fromEntity(updatedHotel, roomRepository.countByHotelId(id));
     }
 
-    @Transactional
     public void deleteHotel(Long id) {
         if (!hotelRepository.existsById(id)) {
             throw new ResourceNotFoundException("Hotel not found with id: " + id);
         }
-        hotelRepository.deleteById(id);
+        // The rooms' stripes keep holds and confirmations of these rooms out until the delete commits
+        List<Long> roomIds = roomRepository.findIdsByHotelId(id);
+        roomLockManager.withRoomLocks(roomIds, () -> transactionTemplate.execute(status -> {
+            // Set-based: the rooms go with one statement instead of being loaded for the cascade, and
+            // take their reservation locks and waiters along
+            if (!roomIds.isEmpty()) {
+                lockStore.deleteByRoomIds(roomIds);
+                waitlistRepository.updateStatusOfRooms(roomIds,
+                        RoomWaitlistEntry.Status.WAITING, RoomWaitlistEntry.Status.CANCELLED);
+            }
+            roomRepository.bulkDeleteByHotelId(id);
+            hotelRepository.bulkDeleteById(id);
+            evictAfterCommit(CacheNames.HOTELS, id);
+            clearAfterCommit(CacheNames.ROOMS);
+            TransactionCallbacks.afterCommit(catalogSnapshot::invalidate);
+            TransactionCallbacks.afterCommit(() -> searchIndex.remove(id));
+            TransactionCallbacks.afterCommit(() -> {
+                roomIds.forEach(this::forgetRoom);
+                leaderboard.removeHotel(id);
+            });
+            return null;
+        }));
     }
 
     // Room CRUD operations
     public List<RoomResponse> listRooms() {
-        return roomRepository.findAll().stream()
-                .map(RoomResponse::fromEntity)
-                .collect(Collectors.toList());
+        return roomRepository.findAllResponses();
+    }
+
+    public List<RoomResponse> listRooms(Long after, int limit) {
+        return roomRepository.findResponsesAfter(after != null ? after : 0L, pageOf(limit));
+    }
+
+    private static PageRequest pageOf(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        return PageRequest.of(0, Math.min(limit, MAX_PAGE_LIMIT));
+    }
+
+    /**
+     * Cached responses are immutable and shared, so a hit allocates nothing. A miss loads inside the
+     * cache's own compute for the key: an eviction of that key waits for the in-flight load, so a
+     * row loaded before a write committed cannot outlive the write's eviction.
+     */
+    private <T> T cached(String cacheName, Long key, Callable<T> loader) {
+        Cache cache = cacheManager.getCache(cacheName);
+        try {
+            return cache != null ? cache.get(key, loader) : loader.call();
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Cached responses are dropped only once the write is visible, so a concurrent read cannot re-cache the old row
+    private void evictAfterCommit(String cacheName, Long key) {
+        TransactionCallbacks.afterCommit(() -> {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.evict(key);
+            }
+        });
+    }
+
+    private void clearAfterCommit(String cacheName) {
+        TransactionCallbacks.afterCommit(() -> {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        });
     }
 
     public RoomResponse getRoom(Long id) {
-        Room room = roomRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Room not found with id: " + id));
-        return RoomResponse.fromEntity(room);
+        return cached(CacheNames.ROOMS, id, () -> roomRepository.findResponseById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Room not found with id: " + id)));
     }
 
     @Transactional
@@ -94,6 +262,7 @@ public class HotelService {
         room.setNumber(request.getNumber());
         room.setCapacity(request.getCapacity());
         room.setAvailable(request.getAvailable() != null ? request.getAvailable() : true);
+        room.setRoomType(request.getRoomType());
         
         if (request.getHotelId() != null) {
             Hotel hotel = hotelRepository.findById(request.getHotelId())
@@ -102,6 +271,15 @@ public class HotelService {
         }
         
         Room savedRoom = roomRepository.save(room);
+        evictAfterCommit(CacheNames.ROOMS, savedRoom.getId());
+        TransactionCallbacks.afterCommit(catalogSnapshot::invalidate);
+        if (savedRoom.getHotel() != null) {
+            evictAfterCommit(CacheNames.HOTELS, savedRoom.getHotel().getId()); // room count
+        }
+        PopularRoomsLeaderboard.RankedRoom ranked = PopularRoomsLeaderboard.RankedRoom.of(savedRoom);
+        TransactionCallbacks.afterCommit(() -> leaderboard.put(ranked));
+        TransactionCallbacks.afterCommit(() ->
+                roomTypeInventory.putRoom(savedRoom.getId(), ranked.hotelId(), savedRoom.getRoomType(), savedRoom.isAvailable()));
         return RoomResponse.fromEntity(savedRoom);
     }
 
@@ -113,6 +291,10 @@ public class HotelService {
         room.setNumber(request.getNumber());
         room.setCapacity(request.getCapacity());
         room.setAvailable(request.getAvailable() != null ? request.getAvailable() : room.isAvailable());
+        room.setRoomType(request.getRoomType());
+        if (room.getHotel() != null) {
+            evictAfterCommit(CacheNames.HOTELS, room.getHotel().getId());
+        }
         
         if (request.getHotelId() != null) {
             Hotel hotel = hotelRepository.findById(request.getHotelId())
@@ -121,59 +303,274 @@ public class HotelService {
         }
         
         Room updatedRoom = roomRepository.save(room);
+        evictAfterCommit(CacheNames.ROOMS, id);
+        TransactionCallbacks.afterCommit(catalogSnapshot::invalidate);
+        if (updatedRoom.getHotel() != null) {
+            evictAfterCommit(CacheNames.HOTELS, updatedRoom.getHotel().getId());
+        }
+        PopularRoomsLeaderboard.RankedRoom ranked = PopularRoomsLeaderboard.RankedRoom.of(updatedRoom);
+        TransactionCallbacks.afterCommit(() -> leaderboard.put(ranked));
+        TransactionCallbacks.afterCommit(() ->
+                roomTypeInventory.putRoom(updatedRoom.getId(), ranked.hotelId(), updatedRoom.getRoomType(),
+                        updatedRoom.isAvailable()));
         return RoomResponse.fromEntity(updatedRoom);
     }
 
     @Transactional
     public void deleteRoom(Long id) {
-        if (!roomRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Room not found with id: " + id);
+        Room room = roomRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Room not found with id: " + id));
+        roomRepository.delete(room);
+        evictAfterCommit(CacheNames.ROOMS, id);
+        TransactionCallbacks.afterCommit(catalogSnapshot::invalidate);
+        if (room.getHotel() != null) {
+            evictAfterCommit(CacheNames.HOTELS, room.getHotel().getId());
         }
-        roomRepository.deleteById(id);
+        TransactionCallbacks.afterCommit(() -> forgetRoom(id));
     }
 
-    // Room availability: hold/confirm/release with idempotency by requestId
-    @Transactional
+    /**
+     * Sets availability and/or capacity on every room matching the filter with one UPDATE statement.
+     * Once it committed, the in-memory views are refreshed from the rooms now in the state the update
+     * leaves behind: a column it set is matched on its new value, the others on the original filter.
+     */
+    public RoomBulkUpdateResponse bulkUpdateRooms(RoomBulkUpdateRequest request) {
+        if (request.getAvailable() == null && request.getCapacity() == null) {
+            throw new IllegalArgumentException("Nothing to update: set available and/or capacity");
+        }
+        if (request.getHotelId() != null && !hotelRepository.existsById(request.getHotelId())) {
+            throw new ResourceNotFoundException("Hotel not found with id: " + request.getHotelId());
+        }
+        int updated = transactionTemplate.execute(status -> {
+            int rows = roomRepository.bulkUpdateMatching(request.getHotelId(), request.getMinCapacity(),
+                    request.getMaxCapacity(), request.getCurrentlyAvailable(),
+                    request.getAvailable(), request.getCapacity());
+            clearAfterCommit(CacheNames.ROOMS);
+            TransactionCallbacks.afterCommit(catalogSnapshot::invalidate);
+            return rows;
+        });
+        if (updated == 0) {
+            return new RoomBulkUpdateResponse(0);
+        }
+        Integer capacity = request.getCapacity();
+        List<Object[]> states = roomRepository.findStatesMatching(request.getHotelId(),
+                capacity != null ? capacity : request.getMinCapacity(),
+                capacity != null ? capacity : request.getMaxCapacity(),
+                request.getAvailable() != null ? request.getAvailable() : request.getCurrentlyAvailable());
+        if (request.getAvailable() != null) {
+            // Rooms made available join their type's units, the others leave them
+            roomTypeInventory.refreshRooms(states);
+        }
+        leaderboard.updateRooms(states);
+        return new RoomBulkUpdateResponse(updated);
+    }
+
+    private void forgetRoom(Long roomId) {
+        roomTypeInventory.removeRoom(roomId);
+        intervalIndex.removeRoom(roomId);
+        availabilityCalendar.removeRoom(roomId);
+        bookingCounters.forget(roomId);
+        leaderboard.removeRoom(roomId);
+        roomWaitlist.unwatch(roomId);
+    }
+
+    // Availability search: candidates come from one keyset query, dates are checked in memory
+    @Transactional(readOnly = true)
+    public RoomSearchResponse searchAvailableRooms(String city, LocalDate startDate, LocalDate endDate,
+                                                   int capacity, Long after, int limit) {
+        if (!endDate.isAfter(startDate)) {
+            throw new IllegalArgumentException("End date must be after start date");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        int pageSize = Math.min(limit, MAX_SEARCH_LIMIT);
+        List<RoomResponse> found = new ArrayList<>(pageSize);
+        long cursor = after != null ? after : 0L;
+
+        while (found.size() < pageSize) {
+            List<Room> candidates = roomRepository.findSearchCandidates(
+                    Hotel.cityKey(city), capacity, cursor, PageRequest.of(0, pageSize * 2));
+            if (candidates.isEmpty()) {
+                return new RoomSearchResponse(found, null);
+            }
+            Map<Long, Room> byId = new LinkedHashMap<>();
+            candidates.forEach(room -> byId.put(room.getId(), room));
+            for (Long roomId : availabilityCalendar.freeRooms(byId.keySet(), startDate, endDate)) {
+                found.add(RoomResponse.fromEntity(byId.get(roomId)));
+                if (found.size() == pageSize) {
+                    return new RoomSearchResponse(found, roomId);
+                }
+            }
+            cursor = candidates.get(candidates.size() - 1).getId();
+        }
+        return new RoomSearchResponse(found, null);
+    }
+
+    // Room availability: hold/confirm/release with idempotency by requestId.
+    // Each operation runs in its own transaction inside the room's stripe lock, or in queue mode
+    // in a batch transaction of its room's queue.
     public RoomLockResponse holdRoom(RoomHoldRequest request, Long roomId) {
+        try {
+            return holdsInFlight.run(request.getRequestId(), new HoldCall("hold", roomId, null, null),
+                    () -> inRoomTransaction(roomId, () -> doHoldRoom(request, roomId)));
+        } catch (RoomUnavailableException e) {
+            throw withAlternatives(e, roomId, request);
+        }
+    }
+
+    // Computed after the room's lock and transaction are gone, so the search never delays the room
+    private RoomUnavailableException withAlternatives(RoomUnavailableException e, Long roomId, RoomHoldRequest request) {
+        if (e.getAlternatives() != null) {
+            return e;
+        }
+        return new RoomUnavailableException(e.getMessage(),
+                holdAlternatives.find(roomId, request.getStartDate(), request.getEndDate()));
+    }
+
+    private RoomLockResponse doHoldRoom(RoomHoldRequest request, Long roomId) {
         // Check for existing hold with same requestId (idempotency)
-        return lockRepository.findByRequestId(request.getRequestId())
+        return lockStore.findByRequestId(request.getRequestId())
                 .map(RoomLockResponse::fromEntity)
                 .orElseGet(() -> createNewHold(request, roomId));
     }
 
     private RoomLockResponse createNewHold(RoomHoldRequest request, Long roomId) {
+        // Dates are nights: the stay occupies [startDate, endDate), so at least one night is required
+        if (!request.getEndDate().isAfter(request.getStartDate())) {
+            throw new IllegalArgumentException("End date must be after start date");
+        }
+
         // Verify room exists
         if (!roomRepository.existsById(roomId)) {
             throw new ResourceNotFoundException("Room not found with id: " + roomId);
         }
         
-        // Check for conflicting holds or confirmations
-        List<RoomReservationLock> conflicts = lockRepository
-                .findByRoomIdAndStatusInAndStartDateLessThanEqualAndEndDateGreaterThanEqual(
-                        roomId,
-                        Arrays.asList(RoomReservationLock.Status.HELD, RoomReservationLock.Status.CONFIRMED),
-                        request.getEndDate(),
-                        request.getStartDate()
-                );
-        
-        if (!conflicts.isEmpty()) {
+        // Check for conflicting holds or confirmations against the in-memory availability
+        if (!availabilityCalendar.isFree(roomId, request.getStartDate(), request.getEndDate())) {
             throw new RoomUnavailableException("Room is not available for the specified dates");
         }
         
+        RoomReservationLock savedLock = lockStore.save(newHeldLock(
+                request.getRequestId(), roomId, request.getStartDate(), request.getEndDate(), request.getTtlSeconds()));
+        trackNewHold(savedLock);
+        return RoomLockResponse.fromEntity(savedLock);
+    }
+
+    /**
+     * Holds every room of a group booking for the same dates, all or nothing. Existence, idempotency
+     * and date conflicts are checked for the whole batch at once; when any room fails nothing is
+     * written and the per-room results say why.
+     */
+    public RoomBatchHoldResponse holdRooms(RoomBatchHoldRequest request) {
+        if (!request.getEndDate().isAfter(request.getStartDate())) {
+            throw new IllegalArgumentException("End date must be after start date");
+        }
+        long distinctRequestIds = request.getItems().stream()
+                .map(RoomBatchHoldRequest.Item::getRequestId).distinct().count();
+        if (distinctRequestIds != request.getItems().size()) {
+            throw new IllegalArgumentException("Request IDs must be unique within a batch");
+        }
+        List<Long> roomIds = request.getItems().stream().map(RoomBatchHoldRequest.Item::getRoomId).toList();
+        return roomLockManager.withRoomLocks(roomIds,
+                () -> transactionTemplate.execute(status -> createBatchHold(request, roomIds)));
+    }
+
+    private RoomBatchHoldResponse createBatchHold(RoomBatchHoldRequest request, List<Long> roomIds) {
+        Map<String, RoomReservationLock> existing = lockStore.findByRequestIdIn(
+                        request.getItems().stream().map(RoomBatchHoldRequest.Item::getRequestId).toList())
+                .stream()
+                .collect(Collectors.toMap(RoomReservationLock::getRequestId, lock -> lock));
+        Set<Long> knownRooms = new HashSet<>(roomRepository.findExistingIds(roomIds));
+        Set<Long> freeRooms = new HashSet<>(
+                availabilityCalendar.freeRooms(new LinkedHashSet<>(roomIds), request.getStartDate(), request.getEndDate()));
+
+        List<RoomBatchHoldResponse.Result> results = new ArrayList<>();
+        Set<Long> seenRooms = new HashSet<>();
+        boolean allHeld = true;
+        for (RoomBatchHoldRequest.Item item : request.getItems()) {
+            RoomReservationLock replay = existing.get(item.getRequestId());
+            RoomBatchHoldResponse.Outcome outcome;
+            if (replay != null) {
+                outcome = replay.getStatus() != RoomReservationLock.Status.RELEASED
+                        && replay.getRoomId().equals(item.getRoomId())
+                        ? RoomBatchHoldResponse.Outcome.EXISTING
+                        : RoomBatchHoldResponse.Outcome.UNAVAILABLE;
+            } else if (!seenRooms.add(item.getRoomId())) {
+                outcome = RoomBatchHoldResponse.Outcome.DUPLICATE_ROOM;
+            } else if (!knownRooms.contains(item.getRoomId())) {
+                outcome = RoomBatchHoldResponse.Outcome.NOT_FOUND;
+            } else if (!freeRooms.contains(item.getRoomId())) {
+                outcome = RoomBatchHoldResponse.Outcome.UNAVAILABLE;
+            } else {
+                outcome = RoomBatchHoldResponse.Outcome.AVAILABLE;
+            }
+            allHeld &= outcome == RoomBatchHoldResponse.Outcome.EXISTING
+                    || outcome == RoomBatchHoldResponse.Outcome.AVAILABLE;
+            results.add(new RoomBatchHoldResponse.Result(item.getRoomId(), item.getRequestId(), outcome,
+                    replay != null ? RoomLockResponse.fromEntity(replay) : null));
+        }
+        if (!allHeld) {
+            return new RoomBatchHoldResponse(false, results);
+        }
+
+        List<RoomReservationLock> newLocks = new ArrayList<>();
+        for (RoomBatchHoldResponse.Result result : results) {
+            if (result.getOutcome() == RoomBatchHoldResponse.Outcome.AVAILABLE) {
+                newLocks.add(newHeldLock(result.getRequestId(), result.getRoomId(),
+                        request.getStartDate(), request.getEndDate(), request.getTtlSeconds()));
+            }
+        }
+        Map<String, RoomReservationLock> saved = lockStore.saveAll(newLocks).stream()
+                .collect(Collectors.toMap(RoomReservationLock::getRequestId, lock -> lock));
+        saved.values().forEach(this::trackNewHold);
+        for (RoomBatchHoldResponse.Result result : results) {
+            RoomReservationLock lock = saved.get(result.getRequestId());
+            if (lock != null) {
+                result.setOutcome(RoomBatchHoldResponse.Outcome.HELD);
+                result.setLock(RoomLockResponse.fromEntity(lock));
+            }
+        }
+        return new RoomBatchHoldResponse(true, results);
+    }
+
+    private RoomReservationLock newHeldLock(String requestId, Long roomId, LocalDate startDate, LocalDate endDate,
+                                            Integer ttlSeconds) {
         RoomReservationLock lock = new RoomReservationLock();
-        lock.setRequestId(request.getRequestId());
+        lock.setRequestId(requestId);
         lock.setRoomId(roomId);
-        lock.setStartDate(request.getStartDate());
-        lock.setEndDate(request.getEndDate());
+        lock.setStartDate(startDate);
+        lock.setEndDate(endDate);
         lock.setStatus(RoomReservationLock.Status.HELD);
-        
-        RoomReservationLock savedLock = lockRepository.save(lock);
-        return RoomLockResponse.fromEntity(savedLock);
+        lock.setExpiresAt(Instant.now().plus(holdTtl(ttlSeconds)));
+        return lock;
+    }
+
+    private void trackNewHold(RoomReservationLock lock) {
+        occupy(lock);
+        TransactionCallbacks.afterRollback(() -> vacate(lock));
+        TransactionCallbacks.afterCommit(() -> scheduleExpiry(lock));
+    }
+
+    private Duration holdTtl(Integer ttlSeconds) {
+        if (ttlSeconds == null) {
+            return defaultHoldTtl;
+        }
+        Duration requested = Duration.ofSeconds(ttlSeconds);
+        return requested.compareTo(maxHoldTtl) > 0 ? maxHoldTtl : requested;
+    }
+
+    public void scheduleExpiry(RoomReservationLock lock) {
+        holdExpiryWheel.schedule(new HoldExpiryWheel.Entry(
+                lock.getRequestId(), lock.getRoomId(), lock.getExpiresAt().toEpochMilli()));
     }
 
-    @Transactional
     public RoomLockResponse confirmHold(RoomActionRequest request) {
-        RoomReservationLock lock = lockRepository.findByRequestId(request.getRequestId())
+        return inRoomTransaction(intervalIndex.roomOf(request.getRequestId()), () -> doConfirmHold(request));
+    }
+
+    private RoomLockResponse doConfirmHold(RoomActionRequest request) {
+        RoomReservationLock lock = lockStore.findByRequestId(request.getRequestId())
                 .orElseThrow(() -> new IllegalStateException("Hold not found for requestId: " + request.getRequestId()));
         
         // Idempotency: if already confirmed, return existing
@@ -185,21 +582,170 @@ public class HotelService {
             throw new IllegalStateException("Cannot confirm a released hold");
         }
         
+        return RoomLockResponse.fromEntity(confirm(lock));
+    }
+
+    /**
+     * Hold and confirm in one step, for sagas with nothing between the two: one transaction does the
+     * conflict check, inserts the lock as CONFIRMED and counts the booking. Replays of a requestId
+     * that was only held confirm that hold.
+     */
+    public RoomLockResponse reserveRoom(RoomHoldRequest request, Long roomId) {
+        // A replay of an existing hold must serialize with the room that hold is on, like confirmHold
+        Long heldRoom = intervalIndex.roomOf(request.getRequestId());
+        try {
+            return inRoomTransaction(heldRoom != null ? heldRoom : roomId, () -> doReserveRoom(request, roomId));
+        } catch (RoomUnavailableException e) {
+            throw withAlternatives(e, roomId, request);
+        }
+    }
+
+    private RoomLockResponse doReserveRoom(RoomHoldRequest request, Long roomId) {
+        RoomReservationLock existing = lockStore.findByRequestId(request.getRequestId()).orElse(null);
+        if (existing != null) {
+            if (existing.getStatus() == RoomReservationLock.Status.RELEASED) {
+                throw new IllegalStateException("Cannot confirm a released hold");
+            }
+            return RoomLockResponse.fromEntity(existing.getStatus() == RoomReservationLock.Status.HELD
+                    ? confirm(existing)
+                    : existing);
+        }
+
+        if (!request.getEndDate().isAfter(request.getStartDate())) {
+            throw new IllegalArgumentException("End date must be after start date");
+        }
+        if (!roomRepository.existsById(roomId)) {
+            throw new ResourceNotFoundException("Room not found with id: " + roomId);
+        }
+        if (!availabilityCalendar.isFree(roomId, request.getStartDate(), request.getEndDate())) {
+            throw new RoomUnavailableException("Room is not available for the specified dates");
+        }
+
+        RoomReservationLock lock = newHeldLock(
+                request.getRequestId(), roomId, request.getStartDate(), request.getEndDate(), null);
         lock.setStatus(RoomReservationLock.Status.CONFIRMED);
-        
-        // Increment booking counter for statistics
-        roomRepository.findById(lock.getRoomId()).ifPresent(room -> {
-            room.setTimesBooked(room.getTimesBooked() + 1);
-            roomRepository.save(room);
+        lock.setExpiresAt(null);
+        RoomReservationLock savedLock = lockStore.save(lock);
+        occupy(savedLock);
+        TransactionCallbacks.afterRollback(() -> vacate(savedLock));
+        recordBooking(savedLock.getRoomId());
+        return RoomLockResponse.fromEntity(savedLock);
+    }
+
+    /**
+     * Holds any room of the given type in the hotel, for guests who did not pick a specific room.
+     * Sold-out dates are rejected by the type's night counters without looking at a single room;
+     * otherwise the free rooms of the type are tried in turn, starting at a position derived from
+     * the requestId so that concurrent requests spread over them instead of racing for the first.
+     */
+    public RoomLockResponse holdRoomOfType(Long hotelId, String roomType, RoomHoldRequest request) {
+        return holdsInFlight.run(request.getRequestId(),
+                new HoldCall("holdOfType", null, hotelId, roomType), () ->
+                takeRoomOfType(hotelId, roomType, request, roomId -> doHoldRoom(request, roomId)));
+    }
+
+    // Hold and confirm of any room of the type in one call
+    public RoomLockResponse reserveRoomOfType(Long hotelId, String roomType, RoomHoldRequest request) {
+        return holdsInFlight.run(request.getRequestId(),
+                new HoldCall("reserveOfType", null, hotelId, roomType), () ->
+                takeRoomOfType(hotelId, roomType, request, roomId -> doReserveRoom(request, roomId)));
+    }
+
+    public List<RoomTypeAvailability> roomTypeAvailability(Long hotelId, LocalDate startDate, LocalDate endDate) {
+        if (!endDate.isAfter(startDate)) {
+            throw new IllegalArgumentException("End date must be after start date");
+        }
+        return roomTypeInventory.availability(hotelId, startDate, endDate);
+    }
+
+    /**
+     * Occupancy grid of every room of the hotel over [from, to): one query for the rooms, then one
+     * pass over each room's active intervals in the index, clipped to the range and run-length
+     * encoded. Back-to-back stays merge into a single run.
+     */
+    public AvailabilityMatrix availabilityMatrix(Long hotelId, LocalDate from, LocalDate to) {
+        if (!to.isAfter(from)) {
+            throw new IllegalArgumentException("End date must be after start date");
+        }
+        long nights = to.toEpochDay() - from.toEpochDay();
+        if (nights > MAX_MATRIX_NIGHTS) {
+            throw new IllegalArgumentException("Availability range cannot exceed " + MAX_MATRIX_NIGHTS + " nights");
+        }
+        if (!hotelRepository.existsById(hotelId)) {
+            throw new ResourceNotFoundException("Hotel not found with id: " + hotelId);
+        }
+        List<RoomOccupancy> rooms = new ArrayList<>();
+        for (RoomResponse room : roomRepository.findResponsesByHotelId(hotelId)) {
+            List<int[]> runs = new ArrayList<>();
+            intervalIndex.forEachOf(room.getId(), interval -> {
+                int start = (int) Math.max(0, interval.startDate().toEpochDay() - from.toEpochDay());
+                int end = (int) Math.min(nights, interval.endDate().toEpochDay() - from.toEpochDay());
+                if (start >= end) {
+                    return;
+                }
+                int[] last = runs.isEmpty() ? null : runs.get(runs.size() - 1);
+                if (last != null && last[0] + last[1] == start) {
+                    last[1] += end - start;
+                } else {
+                    runs.add(new int[] {start, end - start});
+                }
+            });
+            rooms.add(new RoomOccupancy(room.getId(), room.getNumber(), room.getRoomType(), room.isAvailable(), runs));
+        }
+        return new AvailabilityMatrix(hotelId, from, to, (int) nights, rooms);
+    }
+
+    private RoomLockResponse takeRoomOfType(Long hotelId, String roomType, RoomHoldRequest request,
+                                            Function<Long, RoomLockResponse> take) {
+        // A replay goes to the room the first attempt took
+        Long takenRoom = lockStore.findByRequestId(request.getRequestId()).map(RoomReservationLock::getRoomId).orElse(null);
+        if (takenRoom != null) {
+            return inRoomTransaction(takenRoom, () -> take.apply(takenRoom));
+        }
+        if (!request.getEndDate().isAfter(request.getStartDate())) {
+            throw new IllegalArgumentException("End date must be after start date");
+        }
+        if (!roomTypeInventory.exists(hotelId, roomType)) {
+            throw new ResourceNotFoundException("Room type " + roomType + " not found in hotel " + hotelId);
+        }
+        if (roomTypeInventory.available(hotelId, roomType, request.getStartDate(), request.getEndDate()) == 0) {
+            throw new RoomUnavailableException("No room of type " + roomType + " is available for the specified dates");
+        }
+        List<Long> free = availabilityCalendar.freeRooms(
+                roomTypeInventory.rooms(hotelId, roomType), request.getStartDate(), request.getEndDate());
+        if (!free.isEmpty()) {
+            Collections.rotate(free, -Math.floorMod(request.getRequestId().hashCode(), free.size()));
+        }
+        for (Long roomId : free) {
+            try {
+                return inRoomTransaction(roomId, () -> take.apply(roomId));
+            } catch (RoomUnavailableException e) {
+                // Taken by a concurrent request since the calendar was read, try the next one
+            }
+        }
+        throw new RoomUnavailableException("No room of type " + roomType + " is available for the specified dates");
+    }
+
+    private RoomReservationLock confirm(RoomReservationLock lock) {
+        lock.setStatus(RoomReservationLock.Status.CONFIRMED);
+        recordBooking(lock.getRoomId());
+        return lockStore.save(lock);
+    }
+
+    // Increment booking counter for statistics once the confirmation is committed
+    private void recordBooking(Long roomId) {
+        TransactionCallbacks.afterCommit(() -> {
+            bookingCounters.increment(roomId);
+            leaderboard.recordBooking(roomId);
         });
-        
-        RoomReservationLock confirmedLock = lockRepository.save(lock);
-        return RoomLockResponse.fromEntity(confirmedLock);
     }
 
-    @Transactional
     public RoomLockResponse releaseHold(RoomActionRequest request) {
-        RoomReservationLock lock = lockRepository.findByRequestId(request.getRequestId())
+        return inRoomTransaction(intervalIndex.roomOf(request.getRequestId()), () -> doReleaseHold(request));
+    }
+
+    private RoomLockResponse doReleaseHold(RoomActionRequest request) {
+        RoomReservationLock lock = lockStore.findByRequestId(request.getRequestId())
                 .orElseThrow(() -> new IllegalStateException("Hold not found for requestId: " + request.getRequestId()));
         
         // Idempotency: if already released, return existing
@@ -213,9 +759,59 @@ public class HotelService {
         }
         
         lock.setStatus(RoomReservationLock.Status.RELEASED);
-        RoomReservationLock releasedLock = lockRepository.save(lock);
+        RoomReservationLock releasedLock = lockStore.save(lock);
+        vacate(releasedLock);
+        TransactionCallbacks.afterRollback(() -> occupy(releasedLock));
+        TransactionCallbacks.afterCommit(() -> roomWaitlist.freed(releasedLock.getRoomId()));
         return RoomLockResponse.fromEntity(releasedLock);
     }
+
+    /**
+     * Releases those of the given holds that are still HELD and past their expiry, with one select
+     * and one update for the whole batch. Returns the number of holds released.
+     */
+    public int expireHolds(Collection<HoldExpiryWheel.Entry> due) {
+        Set<Long> roomIds = due.stream().map(HoldExpiryWheel.Entry::roomId).collect(Collectors.toSet());
+        Set<String> requestIds = due.stream().map(HoldExpiryWheel.Entry::requestId).collect(Collectors.toSet());
+        Integer released = roomLockManager.withRoomLocks(roomIds, () -> transactionTemplate.execute(status -> {
+            List<RoomReservationLock> expired = lockStore.findExpiredHolds(requestIds, Instant.now());
+            if (expired.isEmpty()) {
+                return 0;
+            }
+            lockStore.updateStatus(
+                    expired.stream().map(RoomReservationLock::getId).toList(),
+                    RoomReservationLock.Status.HELD,
+                    RoomReservationLock.Status.RELEASED);
+            expired.forEach(this::vacate);
+            TransactionCallbacks.afterRollback(() -> expired.forEach(this::occupy));
+            TransactionCallbacks.afterCommit(() -> expired.forEach(lock -> roomWaitlist.freed(lock.getRoomId())));
+            return expired.size();
+        }));
+        return released != null ? released : 0;
+    }
+
+    // A null roomId means the requestId has no active lock: nothing to serialize against
+    private <T> T inRoomTransaction(Long roomId, Supplier<T> action) {
+        if (roomId == null) {
+            return transactionTemplate.execute(status -> action.get());
+        }
+        if (roomCommandQueues.accepts()) {
+            return roomCommandQueues.submit(roomId, action);
+        }
+        return roomLockManager.withRoomLock(roomId, () -> transactionTemplate.execute(status -> action.get()));
+    }
+
+    // The index must change before the calendar, a horizon rebuild reads the index. The type
+    // counters change together with the index, under the inventory's lock.
+    private void occupy(RoomReservationLock lock) {
+        roomTypeInventory.apply(lock, true, () -> intervalIndex.add(lock));
+        availabilityCalendar.occupy(lock.getRoomId(), lock.getStartDate(), lock.getEndDate());
+    }
+
+    private void vacate(RoomReservationLock lock) {
+        roomTypeInventory.apply(lock, false, () -> intervalIndex.remove(lock));
+        availabilityCalendar.vacate(lock.getRoomId(), lock.getStartDate(), lock.getEndDate());
+    }
 }
 
 
@@ -0,0 +1,335 @@
+package com.example.hotel.service;
+
+import com.example.hotel.model.RoomReservationLock;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Journal engine ({@code hotel.engine.mode=journal}): the authoritative lock state is the maps in
+ * this class, and every change is appended to the {@link ReservationJournal} before the transaction
+ * that made it commits. The changes of one transaction are appended together and wait for a single
+ * fsync, which they share with any other transaction committing at the same time. On startup the
+ * maps are rebuilt from the latest snapshot and the journal after it.
+ *
+ * Callers get copies, as with detached entities; a save is visible at once and undone if the
+ * transaction rolls back. Should the transaction roll back after its changes reached the journal
+ * (only possible if the commit itself fails), the previous states are appended again, and a lock
+ * the transaction created gets a tombstone.
+ *
+ * Finished locks are compacted away by {@link LockArchivalJob} with the same rules that archive
+ * the lock table in the default engine: they are dropped from the maps and tombstoned.
+ */
+@Component
+@ConditionalOnProperty(name = "hotel.engine.mode", havingValue = "journal")
+public class JournalReservationLockStore implements ReservationLockStore {
+    private static final Logger log = LoggerFactory.getLogger(JournalReservationLockStore.class);
+
+    private final ReservationJournal journal;
+    private final ConcurrentMap<Long, RoomReservationLock> locksById = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Long> idsByRequestId = new ConcurrentHashMap<>();
+    private final AtomicLong nextId;
+
+    public JournalReservationLockStore(@Value("${hotel.engine.journal.dir:./data/journal}") String directory,
+                                       @Value("${hotel.engine.journal.segment-size-mb:64}") int segmentSizeMb) throws IOException {
+        this.journal = new ReservationJournal(Path.of(directory), segmentSizeMb * 1024 * 1024);
+        for (RoomReservationLock lock : journal.recovered()) {
+            locksById.put(lock.getId(), lock);
+            idsByRequestId.put(lock.getRequestId(), lock.getId());
+        }
+        // Ids of compacted locks are not handed out again
+        this.nextId = new AtomicLong(journal.highestId() + 1);
+        log.info("Recovered {} reservation locks from the journal in {}", locksById.size(), directory);
+    }
+
+    @Override
+    public Optional<RoomReservationLock> findByRequestId(String requestId) {
+        Long id = idsByRequestId.get(requestId);
+        RoomReservationLock lock = id != null ? locksById.get(id) : null;
+        return Optional.ofNullable(lock).map(JournalReservationLockStore::copy);
+    }
+
+    @Override
+    public List<RoomReservationLock> findByRequestIdIn(Collection<String> requestIds) {
+        List<RoomReservationLock> found = new ArrayList<>();
+        requestIds.forEach(requestId -> findByRequestId(requestId).ifPresent(found::add));
+        return found;
+    }
+
+    @Override
+    public List<RoomReservationLock> findByStatusIn(Collection<RoomReservationLock.Status> statuses) {
+        return locksById.values().stream()
+                .filter(lock -> statuses.contains(lock.getStatus()))
+                .map(JournalReservationLockStore::copy)
+                .toList();
+    }
+
+    @Override
+    public List<RoomReservationLock> findExpiredHolds(Collection<String> requestIds, Instant now) {
+        return findByRequestIdIn(requestIds).stream()
+                .filter(lock -> lock.getStatus() == RoomReservationLock.Status.HELD)
+                .filter(lock -> lock.getExpiresAt() != null && !lock.getExpiresAt().isAfter(now))
+                .toList();
+    }
+
+    @Override
+    public RoomReservationLock save(RoomReservationLock lock) {
+        if (lock.getId() == null) {
+            Long id = nextId.getAndIncrement();
+            if (idsByRequestId.putIfAbsent(lock.getRequestId(), id) != null) {
+                throw new DataIntegrityViolationException("Duplicate requestId: " + lock.getRequestId());
+            }
+            lock.setId(id);
+        }
+        RoomReservationLock stored = copy(lock);
+        RoomReservationLock previous = locksById.put(stored.getId(), stored);
+        changes().record(stored, previous);
+        return lock;
+    }
+
+    @Override
+    public List<RoomReservationLock> saveAll(Collection<RoomReservationLock> locks) {
+        List<RoomReservationLock> saved = new ArrayList<>(locks.size());
+        locks.forEach(lock -> saved.add(save(lock)));
+        return saved;
+    }
+
+    @Override
+    public int updateStatus(Collection<Long> ids, RoomReservationLock.Status from, RoomReservationLock.Status to) {
+        int updated = 0;
+        for (Long id : ids) {
+            RoomReservationLock lock = locksById.get(id);
+            if (lock != null && lock.getStatus() == from) {
+                RoomReservationLock changed = copy(lock);
+                changed.setStatus(to);
+                save(changed);
+                updated++;
+            }
+        }
+        return updated;
+    }
+
+    @Override
+    public int deleteByRoomIds(Collection<Long> roomIds) {
+        int deleted = 0;
+        for (RoomReservationLock lock : locksById.values()) {
+            if (roomIds.contains(lock.getRoomId()) && locksById.remove(lock.getId(), lock)) {
+                idsByRequestId.remove(lock.getRequestId(), lock.getId());
+                changes().recordDeleted(lock);
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    @Override
+    public List<RoomReservationLock> compactFinished(Instant releasedBefore, LocalDate today, int limit) {
+        List<RoomReservationLock> removed = new ArrayList<>();
+        for (RoomReservationLock lock : locksById.values()) {
+            if (removed.size() >= limit) {
+                break;
+            }
+            // Conditional remove: a lock changed since it was read is left for the next run
+            if (isFinished(lock, releasedBefore, today) && locksById.remove(lock.getId(), lock)) {
+                idsByRequestId.remove(lock.getRequestId(), lock.getId());
+                removed.add(lock);
+            }
+        }
+        if (removed.isEmpty()) {
+            return removed;
+        }
+        try {
+            long sequence = 0;
+            for (RoomReservationLock lock : removed) {
+                sequence = journal.appendDeleted(lock);
+            }
+            journal.awaitDurable(sequence);
+        } catch (IOException e) {
+            putBack(removed);
+            throw new UncheckedIOException("Reservation journal write failed", e);
+        } catch (RuntimeException e) {
+            putBack(removed);
+            throw e;
+        }
+        return removed.stream().map(JournalReservationLockStore::copy).toList();
+    }
+
+    private void putBack(List<RoomReservationLock> removed) {
+        removed.forEach(lock -> {
+            locksById.putIfAbsent(lock.getId(), lock);
+            idsByRequestId.putIfAbsent(lock.getRequestId(), lock.getId());
+        });
+    }
+
+    private static boolean isFinished(RoomReservationLock lock, Instant releasedBefore, LocalDate today) {
+        return switch (lock.getStatus()) {
+            case RELEASED -> lock.getExpiresAt() == null || lock.getExpiresAt().isBefore(releasedBefore);
+            case CONFIRMED -> lock.getEndDate().isBefore(today);
+            case HELD -> false;
+        };
+    }
+
+    @Scheduled(fixedDelayString = "${hotel.engine.journal.snapshot-interval-ms:60000}")
+    public void snapshot() {
+        try {
+            journal.snapshot();
+        } catch (IOException e) {
+            // The journal segments are kept until a snapshot succeeds, nothing is lost
+            log.error("Reservation journal snapshot failed, will retry", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        journal.close();
+    }
+
+    // Changes of the current transaction, or a batch of one that is written at once without one
+    private Changes changes() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new Changes(false);
+        }
+        Changes changes = (Changes) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            changes = new Changes(true);
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(changes);
+        }
+        return changes;
+    }
+
+    private void restore(RoomReservationLock stored, RoomReservationLock previous) {
+        if (previous != null) {
+            locksById.put(previous.getId(), previous);
+            idsByRequestId.put(previous.getRequestId(), previous.getId());
+        } else {
+            locksById.remove(stored.getId(), stored);
+            idsByRequestId.remove(stored.getRequestId(), stored.getId());
+        }
+    }
+
+    private long append(Map<Long, RoomReservationLock> written, Set<Long> deleted) {
+        try {
+            long sequence = 0;
+            for (RoomReservationLock lock : written.values()) {
+                sequence = deleted.contains(lock.getId()) ? journal.appendDeleted(lock) : journal.append(lock);
+            }
+            return sequence;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Reservation journal write failed", e);
+        }
+    }
+
+    private final class Changes implements TransactionSynchronization {
+        private final boolean deferred;
+        // Lock id to the state written by this transaction, and the state before its first change
+        private final Map<Long, RoomReservationLock> written = new LinkedHashMap<>();
+        private final Map<Long, RoomReservationLock> before = new LinkedHashMap<>();
+        // Ids among the written ones that this transaction deleted
+        private final Set<Long> deleted = new HashSet<>();
+        private boolean journaled;
+
+        Changes(boolean deferred) {
+            this.deferred = deferred;
+        }
+
+        void record(RoomReservationLock stored, RoomReservationLock previous) {
+            remember(stored, previous);
+            deleted.remove(stored.getId());
+            if (!deferred) {
+                writeThrough();
+            }
+        }
+
+        void recordDeleted(RoomReservationLock removed) {
+            remember(removed, removed);
+            deleted.add(removed.getId());
+            if (!deferred) {
+                writeThrough();
+            }
+        }
+
+        private void remember(RoomReservationLock stored, RoomReservationLock previous) {
+            written.put(stored.getId(), stored);
+            if (!before.containsKey(stored.getId())) {
+                before.put(stored.getId(), previous);
+            }
+        }
+
+        // Not named flush(): that is a TransactionSynchronization callback
+        private void writeThrough() {
+            try {
+                journal.awaitDurable(append(written, deleted));
+            } catch (RuntimeException e) {
+                written.forEach((id, stored) -> restore(stored, before.get(id)));
+                throw e;
+            }
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!written.isEmpty()) {
+                writeThrough();
+                journaled = true;
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResource(JournalReservationLockStore.this);
+            if (status == STATUS_COMMITTED) {
+                return;
+            }
+            written.forEach((id, stored) -> restore(stored, before.get(id)));
+            if (journaled) {
+                // Previous states are appended again; a lock this transaction created is deleted
+                long sequence = 0;
+                try {
+                    for (Map.Entry<Long, RoomReservationLock> change : written.entrySet()) {
+                        RoomReservationLock previous = before.get(change.getKey());
+                        sequence = previous != null ? journal.append(previous) : journal.appendDeleted(change.getValue());
+                    }
+                    journal.awaitDurable(sequence);
+                } catch (IOException | RuntimeException e) {
+                    log.error("Could not journal the rollback of {} reservation locks", written.size(), e);
+                }
+            }
+        }
+    }
+
+    private static RoomReservationLock copy(RoomReservationLock lock) {
+        RoomReservationLock copy = new RoomReservationLock();
+        copy.setId(lock.getId());
+        copy.setRequestId(lock.getRequestId());
+        copy.setRoomId(lock.getRoomId());
+        copy.setStartDate(lock.getStartDate());
+        copy.setEndDate(lock.getEndDate());
+        copy.setStatus(lock.getStatus());
+        copy.setExpiresAt(lock.getExpiresAt());
+        return copy;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.hotel.service;
+
+import com.example.hotel.model.RoomReservationLock;
+import com.example.hotel.repo.RoomReservationLockRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// Default engine: lock rows in the room_reservation_lock table
+@Component
+@ConditionalOnProperty(name = "hotel.engine.mode", havingValue = "jpa", matchIfMissing = true)
+public class JpaReservationLockStore implements ReservationLockStore {
+    private final RoomReservationLockRepository lockRepository;
+
+    public JpaReservationLockStore(RoomReservationLockRepository lockRepository) {
+        this.lockRepository = lockRepository;
+    }
+
+    @Override
+    public Optional<RoomReservationLock> findByRequestId(String requestId) {
+        return lockRepository.findByRequestId(requestId);
+    }
+
+    @Override
+    public List<RoomReservationLock> findByRequestIdIn(Collection<String> requestIds) {
+        return lockRepository.findByRequestIdIn(requestIds);
+    }
+
+    @Override
+    public List<RoomReservationLock> findByStatusIn(Collection<RoomReservationLock.Status> statuses) {
+        return lockRepository.findByStatusIn(statuses);
+    }
+
+    @Override
+    public List<RoomReservationLock> findExpiredHolds(Collection<String> requestIds, Instant now) {
+        return lockRepository.findByRequestIdInAndStatusAndExpiresAtLessThanEqual(
+                requestIds, RoomReservationLock.Status.HELD, now);
+    }
+
+    @Override
+    public RoomReservationLock save(RoomReservationLock lock) {
+        return lockRepository.save(lock);
+    }
+
+    @Override
+    public List<RoomReservationLock> saveAll(Collection<RoomReservationLock> locks) {
+        return lockRepository.saveAll(locks);
+    }
+
+    @Override
+    public int updateStatus(Collection<Long> ids, RoomReservationLock.Status from, RoomReservationLock.Status to) {
+        return lockRepository.updateStatus(ids, from, to);
+    }
+
+    @Override
+    public int deleteByRoomIds(Collection<Long> roomIds) {
+        return lockRepository.deleteByRoomIds(roomIds);
+    }
+
+    // Finished rows are moved to the history table by LockArchivalJob instead
+    @Override
+    public List<RoomReservationLock> compactFinished(Instant releasedBefore, LocalDate today, int limit) {
+        return List.of();
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.hotel.service;
+
+import com.example.hotel.model.RoomReservationLock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Moves finished locks out of the live lock table into {@code room_reservation_lock_history}:
+ * CONFIRMED locks whose stay has ended, and RELEASED locks once their hold deadline is older than
+ * the retention window (so that a late retry of the same requestId still finds its lock). Each
+ * batch is copied and deleted in one transaction, oldest ids first. A store that keeps locks
+ * outside the table (the journal engine) compacts the same locks away in batches.
+ */
+@Component
+public class LockArchivalJob {
+    private static final Logger log = LoggerFactory.getLogger(LockArchivalJob.class);
+
+    private static final String SELECT_SQL = "select id, request_id, room_id, start_date, end_date, status " +
+            "from room_reservation_lock " +
+            "where (status = 'RELEASED' and (expires_at is null or expires_at < :releasedBefore)) " +
+            "or (status = 'CONFIRMED' and end_date < :today) " +
+            "order by id limit :limit";
+    private static final String COPY_SQL = "insert into room_reservation_lock_history " +
+            "(id, request_id, room_id, start_date, end_date, status, expires_at, archived_at) " +
+            "select id, request_id, room_id, start_date, end_date, status, expires_at, :archivedAt " +
+            "from room_reservation_lock where id in (:ids)";
+    private static final String DELETE_SQL = "delete from room_reservation_lock where id in (:ids)";
+
+    private static final RowMapper<RoomReservationLock> ROW_MAPPER = (rs, rowNum) -> {
+        RoomReservationLock lock = new RoomReservationLock();
+        lock.setId(rs.getLong("id"));
+        lock.setRequestId(rs.getString("request_id"));
+        lock.setRoomId(rs.getLong("room_id"));
+        lock.setStartDate(rs.getDate("start_date").toLocalDate());
+        lock.setEndDate(rs.getDate("end_date").toLocalDate());
+        lock.setStatus(RoomReservationLock.Status.valueOf(rs.getString("status")));
+        return lock;
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RoomIntervalIndex intervalIndex;
+    private final ReservationLockStore lockStore;
+    private final int batchSize;
+    private final Duration releasedRetention;
+    private final Counter archivedCounter;
+
+    public LockArchivalJob(NamedParameterJdbcTemplate jdbcTemplate,
+                           TransactionTemplate transactionTemplate,
+                           RoomIntervalIndex intervalIndex,
+                           ReservationLockStore lockStore,
+                           MeterRegistry meterRegistry,
+                           @Value("${hotel.locks.archive.batch-size:1000}") int batchSize,
+                           @Value("${hotel.locks.archive.released-retention-minutes:60}") long releasedRetentionMinutes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.intervalIndex = intervalIndex;
+        this.lockStore = lockStore;
+        this.batchSize = batchSize;
+        this.releasedRetention = Duration.ofMinutes(releasedRetentionMinutes);
+        this.archivedCounter = Counter.builder("hotel.locks.archived")
+                .description("Finished locks moved to the history table")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${hotel.locks.archive.interval-ms:60000}")
+    public void archive() {
+        Instant now = Instant.now();
+        MapSqlParameterSource filter = new MapSqlParameterSource()
+                .addValue("releasedBefore", Timestamp.from(now.minus(releasedRetention)))
+                .addValue("today", Date.valueOf(LocalDate.now()))
+                .addValue("limit", batchSize);
+        int archived = 0;
+        try {
+            int moved;
+            do {
+                moved = archiveBatch(filter, Timestamp.from(now));
+                archived += moved;
+            } while (moved == batchSize);
+            Instant releasedBefore = now.minus(releasedRetention);
+            LocalDate today = LocalDate.now();
+            do {
+                List<RoomReservationLock> compacted = lockStore.compactFinished(releasedBefore, today, batchSize);
+                compacted.stream()
+                        .filter(lock -> lock.getStatus() == RoomReservationLock.Status.CONFIRMED)
+                        .forEach(intervalIndex::remove);
+                moved = compacted.size();
+                archived += moved;
+            } while (moved == batchSize);
+        } catch (RuntimeException e) {
+            // Batches already committed stay archived, the rest is picked up on the next run
+            log.error("Lock archival failed after {} locks, will retry", archived, e);
+        }
+        archivedCounter.increment(archived);
+        if (archived > 0) {
+            log.info("Archived {} finished locks", archived);
+        }
+    }
+
+    private int archiveBatch(MapSqlParameterSource filter, Timestamp archivedAt) {
+        Integer moved = transactionTemplate.execute(status -> {
+            List<RoomReservationLock> batch = jdbcTemplate.query(SELECT_SQL, filter, ROW_MAPPER);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            MapSqlParameterSource ids = new MapSqlParameterSource()
+                    .addValue("ids", batch.stream().map(RoomReservationLock::getId).toList())
+                    .addValue("archivedAt", archivedAt);
+            jdbcTemplate.update(COPY_SQL, ids);
+            jdbcTemplate.update(DELETE_SQL, ids);
+            // Past stays are still in the index, which only ever grows otherwise
+            TransactionCallbacks.afterCommit(() -> batch.stream()
+                    .filter(lock -> lock.getStatus() == RoomReservationLock.Status.CONFIRMED)
+                    .forEach(intervalIndex::remove));
+            return batch.size();
+        });
+        return moved != null ? moved : 0;
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.hotel.service;
+
+import com.example.hotel.dto.RoomResponse;
+import com.example.hotel.model.Room;
+import com.example.hotel.repo.RoomRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Rooms ordered by booking count, kept incrementally so that the top K is read in O(K) instead of
+ * sorting the whole catalog per request. Besides the global ranking there is one ranking per hotel
+ * and per city. Writers are serialized; readers walk the skip lists without locking.
+ */
+@Component
+public class PopularRoomsLeaderboard {
+    private static final Comparator<RankedRoom> RANKING = Comparator
+            .comparingLong(RankedRoom::timesBooked).reversed()
+            .thenComparing(RankedRoom::roomId);
+
+    private final RoomRepository roomRepository;
+    private final ConcurrentMap<Long, RankedRoom> entriesByRoom = new ConcurrentHashMap<>();
+    private final NavigableSet<RankedRoom> global = new ConcurrentSkipListSet<>(RANKING);
+    private final ConcurrentMap<Long, NavigableSet<RankedRoom>> byHotel = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, NavigableSet<RankedRoom>> byCity = new ConcurrentHashMap<>();
+
+    public PopularRoomsLeaderboard(RoomRepository roomRepository) {
+        this.roomRepository = roomRepository;
+    }
+
+    record RankedRoom(Long roomId, String number, int capacity, boolean available, String roomType,
+                      Long hotelId, String hotelName, String city, long timesBooked) {
+
+        // Must be called while the room's hotel can still be loaded
+        static RankedRoom of(Room room) {
+            return new RankedRoom(room.getId(), room.getNumber(), room.getCapacity(), room.isAvailable(),
+                    room.getRoomType(),
+                    room.getHotel() != null ? room.getHotel().getId() : null,
+                    room.getHotel() != null ? room.getHotel().getName() : null,
+                    room.getHotel() != null ? room.getHotel().getCity() : null,
+                    room.getTimesBooked());
+        }
+
+        RoomResponse toResponse() {
+            return new RoomResponse(roomId, number, capacity, timesBooked, available, hotelId, hotelName, roomType);
+        }
+    }
+
+    @PostConstruct
+    void load() {
+        roomRepository.findAllWithHotel().forEach(room -> put(RankedRoom.of(room)));
+    }
+
+    public List<RoomResponse> top(int limit, Long hotelId, String city) {
+        NavigableSet<RankedRoom> ranking = global;
+        if (hotelId != null) {
+            ranking = byHotel.get(hotelId);
+        } else if (city != null) {
+            ranking = byCity.get(cityKey(city));
+        }
+        List<RoomResponse> top = new ArrayList<>(Math.min(limit, 64));
+        if (ranking == null) {
+            return top;
+        }
+        Iterator<RankedRoom> it = ranking.iterator();
+        while (it.hasNext() && top.size() < limit) {
+            RankedRoom entry = it.next();
+            if (city == null || (entry.city() != null && cityKey(city).equals(cityKey(entry.city())))) {
+                top.add(entry.toResponse());
+            }
+        }
+        return top;
+    }
+
+    public synchronized void recordBooking(Long roomId) {
+        RankedRoom current = entriesByRoom.get(roomId);
+        if (current != null) {
+            replace(current, new RankedRoom(current.roomId(), current.number(), current.capacity(), current.available(),
+                    current.roomType(), current.hotelId(), current.hotelName(), current.city(), current.timesBooked() + 1));
+        }
+    }
+
+    /**
+     * Adds or refreshes a room after a catalog change, keeping the count already ranked.
+     */
+    synchronized void put(RankedRoom room) {
+        RankedRoom current = entriesByRoom.get(room.roomId());
+        RankedRoom updated = current == null ? room : new RankedRoom(room.roomId(), room.number(), room.capacity(),
+                room.available(), room.roomType(), room.hotelId(), room.hotelName(), room.city(), current.timesBooked());
+        if (current != null) {
+            replace(current, updated);
+        } else {
+            insert(updated);
+        }
+    }
+
+    public synchronized void updateHotel(Long hotelId, String hotelName, String city) {
+        NavigableSet<RankedRoom> rooms = byHotel.get(hotelId);
+        if (rooms == null) {
+            return;
+        }
+        for (RankedRoom current : new ArrayList<>(rooms)) {
+            replace(current, new RankedRoom(current.roomId(), current.number(), current.capacity(), current.available(),
+                    current.roomType(), hotelId, hotelName, city, current.timesBooked()));
+        }
+    }
+
+    public synchronized void removeRoom(Long roomId) {
+        RankedRoom current = entriesByRoom.remove(roomId);
+        if (current != null) {
+            unlink(current);
+        }
+    }
+
+    /**
+     * Applies a bulk room update from the committed {@link RoomRepository#findStatesMatching} rows.
+     */
+    public synchronized void updateRooms(List<Object[]> states) {
+        for (Object[] row : states) {
+            RankedRoom current = entriesByRoom.get((Long) row[0]);
+            if (current != null) {
+                replace(current, new RankedRoom(current.roomId(), current.number(), (Integer) row[4], (Boolean) row[3],
+                        current.roomType(), current.hotelId(), current.hotelName(), current.city(), current.timesBooked()));
+            }
+        }
+    }
+
+    public synchronized void removeHotel(Long hotelId) {
+        NavigableSet<RankedRoom> rooms = byHotel.get(hotelId);
+        if (rooms != null) {
+            new ArrayList<>(rooms).forEach(entry -> removeRoom(entry.roomId()));
+        }
+    }
+
+    private void replace(RankedRoom current, RankedRoom updated) {
+        unlink(current);
+        insert(updated);
+    }
+
+    private void insert(RankedRoom entry) {
+        entriesByRoom.put(entry.roomId(), entry);
+        global.add(entry);
+        if (entry.hotelId() != null) {
+            byHotel.computeIfAbsent(entry.hotelId(), id -> new ConcurrentSkipListSet<>(RANKING)).add(entry);
+        }
+        if (entry.city() != null) {
+            byCity.computeIfAbsent(cityKey(entry.city()), key -> new ConcurrentSkipListSet<>(RANKING)).add(entry);
+        }
+    }
+
+    private void unlink(RankedRoom entry) {
+        global.remove(entry);
+        if (entry.hotelId() != null) {
+            NavigableSet<RankedRoom> rooms = byHotel.get(entry.hotelId());
+            if (rooms != null) {
+                rooms.remove(entry);
+            }
+        }
+        if (entry.city() != null) {
+            NavigableSet<RankedRoom> rooms = byCity.get(cityKey(entry.city()));
+            if (rooms != null) {
+                rooms.remove(entry);
+            }
+        }
+    }
+
+    private static String cityKey(String city) {
+        return city.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,386 @@
+package com.example.hotel.service;
+
+import com.example.hotel.model.RoomReservationLock;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of reservation lock states in memory-mapped segment files, with snapshots.
+ *
+ * Every record carries the full state of one lock, so replay is "the last record of each id wins";
+ * a deletion is a record of the lock with the {@link #DELETED} status code, which replay drops.
+ * Records go to the current segment {@code journal-<generation>.log}; callers then wait in
+ * {@link #awaitDurable} for an fsync, and one fsync covers every record appended before it, so
+ * concurrent writers share it (group commit). A snapshot starts a new generation and writes the
+ * latest record of every lock to {@code snapshot-<generation>.bin}; recovery loads the newest
+ * snapshot and replays the segments of its generation and later ones.
+ *
+ * Each record is framed as {@code [length][crc32][payload]}; a torn write at the tail fails the
+ * length or checksum test and ends the replay of that segment.
+ */
+public class ReservationJournal implements Closeable {
+    private static final int FRAME_BYTES = 8;
+    // Status codes are part of the file format and must never change; DELETED marks a tombstone
+    private static final byte HELD = 0;
+    private static final byte RELEASED = 1;
+    private static final byte CONFIRMED = 2;
+    private static final byte DELETED = 127;
+    private static final int STATUS_OFFSET = 8 * 5;
+    private static final Pattern FILE_NAME = Pattern.compile("(journal|snapshot)-(\\d+)\\.(log|bin)");
+
+    private final Path directory;
+    private final int segmentBytes;
+    // Latest encoded record of every lock, i.e. what a snapshot has to contain; guarded by this
+    private final Map<Long, byte[]> latest = new HashMap<>();
+    // Highest lock id ever written; when that lock is deleted its tombstone goes into snapshots so the id is not reused
+    private long highestId;
+    private byte[] highestTombstone;
+    private final Object flushMonitor = new Object();
+    private final Object snapshotMonitor = new Object();
+    private long generation;
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private long appended;
+    private long durable; // guarded by flushMonitor
+    private boolean flushing; // guarded by flushMonitor
+
+    public ReservationJournal(Path directory, int segmentBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+        recover();
+    }
+
+    /**
+     * The lock states found on disk when the journal was opened.
+     */
+    public synchronized List<RoomReservationLock> recovered() {
+        List<RoomReservationLock> locks = new ArrayList<>(latest.size());
+        latest.values().forEach(payload -> locks.add(decode(ByteBuffer.wrap(payload))));
+        return locks;
+    }
+
+    /**
+     * Appends the state of {@code lock} and returns its sequence number for {@link #awaitDurable}.
+     */
+    public synchronized long append(RoomReservationLock lock) throws IOException {
+        return write(encode(lock, statusCode(lock.getStatus())));
+    }
+
+    /**
+     * Appends a tombstone for {@code lock}: replay and snapshots no longer contain it.
+     */
+    public synchronized long appendDeleted(RoomReservationLock lock) throws IOException {
+        return write(encode(lock, DELETED));
+    }
+
+    /**
+     * The highest lock id ever written, including locks deleted since.
+     */
+    public synchronized long highestId() {
+        return highestId;
+    }
+
+    // Called with the monitor of this held
+    private long write(byte[] payload) throws IOException {
+        if (FRAME_BYTES + payload.length > segmentBytes) {
+            throw new IllegalArgumentException("Journal record of " + payload.length + " bytes exceeds the segment size");
+        }
+        if (segment.remaining() < FRAME_BYTES + payload.length) {
+            roll();
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        segment.putInt(payload.length);
+        segment.putInt((int) crc.getValue());
+        segment.put(payload);
+        apply(payload);
+        return ++appended;
+    }
+
+    // Called with the monitor of this held, or from the constructor
+    private void apply(byte[] payload) {
+        long id = ByteBuffer.wrap(payload).getLong();
+        boolean deleted = payload[STATUS_OFFSET] == DELETED;
+        if (deleted) {
+            latest.remove(id);
+        } else {
+            latest.put(id, payload);
+        }
+        if (id >= highestId) {
+            highestId = id;
+            highestTombstone = deleted ? payload : null;
+        }
+    }
+
+    /**
+     * Blocks until the record with the given sequence number has been forced to disk. Whoever finds
+     * no flush in progress forces everything appended so far; the others wait for that flush. A
+     * failed flush makes nothing durable: the waiters wake up and one of them forces again.
+     */
+    public void awaitDurable(long sequence) {
+        while (true) {
+            synchronized (flushMonitor) {
+                if (durable >= sequence) {
+                    return;
+                }
+                if (flushing) {
+                    try {
+                        flushMonitor.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Interrupted while waiting for the reservation journal", e);
+                    }
+                    continue;
+                }
+                flushing = true;
+            }
+            long target;
+            MappedByteBuffer current;
+            synchronized (this) {
+                target = appended;
+                current = segment;
+            }
+            try {
+                force(current);
+                synchronized (flushMonitor) {
+                    durable = Math.max(durable, target);
+                }
+            } finally {
+                endFlush();
+            }
+        }
+    }
+
+    // Separate so that tests can simulate a failing disk
+    void force(MappedByteBuffer buffer) {
+        buffer.force();
+    }
+
+    /**
+     * Starts a new generation and writes the latest state of every lock to a snapshot of it, then
+     * drops the segments and snapshots the new snapshot supersedes.
+     */
+    public void snapshot() throws IOException {
+        synchronized (snapshotMonitor) {
+            long snapshotGeneration;
+            List<byte[]> state;
+            synchronized (this) {
+                roll();
+                snapshotGeneration = generation;
+                state = new ArrayList<>(latest.values());
+                if (highestTombstone != null) {
+                    state.add(highestTombstone);
+                }
+            }
+            Path temporary = directory.resolve("snapshot.tmp");
+            try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+                for (byte[] payload : state) {
+                    if (buffer.remaining() < FRAME_BYTES + payload.length) {
+                        drain(buffer, out);
+                        if (buffer.capacity() < FRAME_BYTES + payload.length) {
+                            buffer = ByteBuffer.allocate(FRAME_BYTES + payload.length);
+                        }
+                    }
+                    CRC32 crc = new CRC32();
+                    crc.update(payload);
+                    buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+                }
+                drain(buffer, out);
+                out.force(true);
+            }
+            Files.move(temporary, directory.resolve(fileName("snapshot", snapshotGeneration)),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            for (Path file : files()) {
+                if (generationOf(file) < snapshotGeneration) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        force(segment);
+        markDurable(appended);
+        channel.close();
+    }
+
+    private void recover() throws IOException {
+        long snapshotGeneration = -1;
+        List<Path> segments = new ArrayList<>();
+        for (Path file : files()) {
+            if (file.getFileName().toString().startsWith("snapshot")) {
+                snapshotGeneration = Math.max(snapshotGeneration, generationOf(file));
+            } else {
+                segments.add(file);
+            }
+        }
+        if (snapshotGeneration >= 0) {
+            ByteBuffer snapshot = ByteBuffer.wrap(Files.readAllBytes(directory.resolve(fileName("snapshot", snapshotGeneration))));
+            readRecords(snapshot, this::apply);
+        }
+        long from = Math.max(snapshotGeneration, 0);
+        segments.sort((a, b) -> Long.compare(generationOf(a), generationOf(b)));
+        generation = from;
+        for (Path file : segments) {
+            long segmentGeneration = generationOf(file);
+            if (segmentGeneration < from) {
+                continue;
+            }
+            try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+                readRecords(in.map(FileChannel.MapMode.READ_ONLY, 0, in.size()), this::apply);
+            }
+            generation = Math.max(generation, segmentGeneration);
+        }
+        openSegment(generation);
+    }
+
+    // Called with the monitor of this held
+    private void roll() throws IOException {
+        force(segment);
+        markDurable(appended);
+        channel.close();
+        openSegment(generation + 1);
+    }
+
+    private void openSegment(long segmentGeneration) throws IOException {
+        generation = segmentGeneration;
+        channel = FileChannel.open(directory.resolve(fileName("journal", segmentGeneration)),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        // Continue after the last intact record
+        segment.position(readRecords(segment.duplicate(), payload -> {}));
+    }
+
+    private void markDurable(long sequence) {
+        synchronized (flushMonitor) {
+            durable = Math.max(durable, sequence);
+        }
+        endFlush();
+    }
+
+    private void endFlush() {
+        synchronized (flushMonitor) {
+            flushing = false;
+            flushMonitor.notifyAll();
+        }
+    }
+
+    private List<Path> files() throws IOException {
+        try (Stream<Path> listing = Files.list(directory)) {
+            return listing.filter(file -> FILE_NAME.matcher(file.getFileName().toString()).matches()).toList();
+        }
+    }
+
+    private static long generationOf(Path file) {
+        Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Not a journal file: " + file);
+        }
+        return Long.parseLong(matcher.group(2));
+    }
+
+    private static String fileName(String kind, long generation) {
+        return kind + "-" + generation + (kind.equals("journal") ? ".log" : ".bin");
+    }
+
+    private static void drain(ByteBuffer buffer, FileChannel out) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // Returns the position after the last intact record
+    private static int readRecords(ByteBuffer buffer, Consumer<byte[]> onPayload) {
+        while (buffer.remaining() >= FRAME_BYTES) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                buffer.position(start);
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) {
+                buffer.position(start);
+                break;
+            }
+            onPayload.accept(payload);
+        }
+        return buffer.position();
+    }
+
+    static byte[] encode(RoomReservationLock lock, byte statusCode) {
+        byte[] requestId = lock.getRequestId().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(8 * 5 + 1 + 4 + requestId.length);
+        buffer.putLong(lock.getId())
+                .putLong(lock.getRoomId())
+                .putLong(lock.getStartDate().toEpochDay())
+                .putLong(lock.getEndDate().toEpochDay())
+                .putLong(lock.getExpiresAt() != null ? lock.getExpiresAt().toEpochMilli() : Long.MIN_VALUE)
+                .put(statusCode)
+                .putInt(requestId.length)
+                .put(requestId);
+        return buffer.array();
+    }
+
+    static RoomReservationLock decode(ByteBuffer buffer) {
+        RoomReservationLock lock = new RoomReservationLock();
+        lock.setId(buffer.getLong());
+        lock.setRoomId(buffer.getLong());
+        lock.setStartDate(LocalDate.ofEpochDay(buffer.getLong()));
+        lock.setEndDate(LocalDate.ofEpochDay(buffer.getLong()));
+        long expiresAt = buffer.getLong();
+        lock.setExpiresAt(expiresAt != Long.MIN_VALUE ? Instant.ofEpochMilli(expiresAt) : null);
+        lock.setStatus(statusOf(buffer.get()));
+        byte[] requestId = new byte[buffer.getInt()];
+        buffer.get(requestId);
+        lock.setRequestId(new String(requestId, StandardCharsets.UTF_8));
+        return lock;
+    }
+
+    private static byte statusCode(RoomReservationLock.Status status) {
+        return switch (status) {
+            case HELD -> HELD;
+            case RELEASED -> RELEASED;
+            case CONFIRMED -> CONFIRMED;
+        };
+    }
+
+    private static RoomReservationLock.Status statusOf(byte code) {
+        return switch (code) {
+            case HELD -> RoomReservationLock.Status.HELD;
+            case RELEASED -> RoomReservationLock.Status.RELEASED;
+            case CONFIRMED -> RoomReservationLock.Status.CONFIRMED;
+            default -> throw new IllegalStateException("Unknown lock status code in the journal: " + code);
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.hotel.service;
+
+import com.example.hotel.model.RoomReservationLock;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Where reservation lock state lives. The default keeps it in the lock table through JPA; the
+ * journal engine keeps it in memory and makes it durable through an append-only journal. Saves
+ * take effect when the surrounding transaction commits and are undone if it rolls back.
+ */
+public interface ReservationLockStore {
+    Optional<RoomReservationLock> findByRequestId(String requestId);
+
+    List<RoomReservationLock> findByRequestIdIn(Collection<String> requestIds);
+
+    List<RoomReservationLock> findByStatusIn(Collection<RoomReservationLock.Status> statuses);
+
+    /**
+     * Those of the given locks that are still HELD with an expiry at or before {@code now}.
+     */
+    List<RoomReservationLock> findExpiredHolds(Collection<String> requestIds, Instant now);
+
+    RoomReservationLock save(RoomReservationLock lock);
+
+    List<RoomReservationLock> saveAll(Collection<RoomReservationLock> locks);
+
+    int updateStatus(Collection<Long> ids, RoomReservationLock.Status from, RoomReservationLock.Status to);
+
+    /**
+     * Deletes every lock of the given rooms, for rooms that are being deleted themselves.
+     */
+    int deleteByRoomIds(Collection<Long> roomIds);
+
+    /**
+     * Drops up to {@code limit} finished locks the store keeps itself: RELEASED ones whose hold
+     * deadline is before {@code releasedBefore} and CONFIRMED ones whose stay ended before
+     * {@code today}. Returns the dropped locks; empty for a store whose locks are archived elsewhere.
+     */
+    List<RoomReservationLock> compactFinished(Instant releasedBefore, LocalDate today, int limit);
+}
@@ -0,0 +1,207 @@
+package com.example.hotel.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Night-level occupancy bitmap per room over a rolling horizon starting today.
+ * Bit {@code i} of a room's {@code long[]} is set when the night {@code firstNight + i} is taken
+ * by a HELD or CONFIRMED lock, so range checks are a handful of word-wise ANDs.
+ *
+ * The bitmap is a projection of {@link RoomIntervalIndex}: it is rebuilt from the index at startup
+ * and whenever the horizon rolls over to a new day. Ranges falling outside the horizon are
+ * answered by the index directly.
+ */
+@Component
+public class RoomAvailabilityCalendar {
+    static final int HORIZON_WORDS = 12;
+    static final int HORIZON_NIGHTS = HORIZON_WORDS * Long.SIZE; // 768 nights, a bit over two years
+
+    private final RoomIntervalIndex intervalIndex;
+    // Bitmap writers share the read lock, a horizon rebuild takes the write lock
+    private final ReadWriteLock horizonLock = new ReentrantReadWriteLock();
+    private volatile Horizon horizon;
+
+    public RoomAvailabilityCalendar(RoomIntervalIndex intervalIndex) {
+        this.intervalIndex = intervalIndex;
+    }
+
+    private record Horizon(long firstNight, ConcurrentMap<Long, long[]> nightsByRoom) {}
+
+    @PostConstruct
+    void load() {
+        rebuild(LocalDate.now().toEpochDay());
+    }
+
+    public boolean covers(LocalDate startDate, LocalDate endDate) {
+        return covers(current(), startDate, endDate);
+    }
+
+    public boolean isFree(Long roomId, LocalDate startDate, LocalDate endDate) {
+        Horizon current = current();
+        if (!covers(current, startDate, endDate)) {
+            return !intervalIndex.hasConflict(roomId, startDate, endDate);
+        }
+        long[] nights = current.nightsByRoom().get(roomId);
+        if (nights == null) {
+            return true;
+        }
+        int from = (int) (startDate.toEpochDay() - current.firstNight());
+        int to = (int) (endDate.toEpochDay() - current.firstNight());
+        synchronized (nights) {
+            return !anySet(nights, from, to);
+        }
+    }
+
+    /**
+     * Filters {@code roomIds} down to the rooms with every night of [startDate, endDate) free,
+     * preserving the iteration order of the input.
+     */
+    public List<Long> freeRooms(Collection<Long> roomIds, LocalDate startDate, LocalDate endDate) {
+        Horizon current = current();
+        List<Long> free = new ArrayList<>();
+        if (!covers(current, startDate, endDate)) {
+            for (Long roomId : roomIds) {
+                if (!intervalIndex.hasConflict(roomId, startDate, endDate)) {
+                    free.add(roomId);
+                }
+            }
+            return free;
+        }
+        long[] mask = new long[HORIZON_WORDS];
+        setRange(mask, (int) (startDate.toEpochDay() - current.firstNight()),
+                (int) (endDate.toEpochDay() - current.firstNight()), true);
+        for (Long roomId : roomIds) {
+            long[] nights = current.nightsByRoom().get(roomId);
+            if (nights == null || !intersects(nights, mask)) {
+                free.add(roomId);
+            }
+        }
+        return free;
+    }
+
+    public void occupy(Long roomId, LocalDate startDate, LocalDate endDate) {
+        mark(roomId, startDate, endDate, true);
+    }
+
+    public void vacate(Long roomId, LocalDate startDate, LocalDate endDate) {
+        mark(roomId, startDate, endDate, false);
+    }
+
+    public void removeRoom(Long roomId) {
+        current().nightsByRoom().remove(roomId);
+    }
+
+    private void mark(Long roomId, LocalDate startDate, LocalDate endDate, boolean occupied) {
+        current(); // roll over first, the write lock cannot be taken while holding the read lock
+        horizonLock.readLock().lock();
+        try {
+            Horizon current = horizon;
+            int from = (int) Math.max(0, startDate.toEpochDay() - current.firstNight());
+            int to = (int) Math.min(HORIZON_NIGHTS, endDate.toEpochDay() - current.firstNight());
+            if (from >= to) {
+                return;
+            }
+            long[] nights = current.nightsByRoom().computeIfAbsent(roomId, id -> new long[HORIZON_WORDS]);
+            synchronized (nights) {
+                setRange(nights, from, to, occupied);
+            }
+        } finally {
+            horizonLock.readLock().unlock();
+        }
+    }
+
+    private Horizon current() {
+        Horizon current = horizon;
+        long today = LocalDate.now().toEpochDay();
+        if (current.firstNight() != today) {
+            rebuild(today);
+            current = horizon;
+        }
+        return current;
+    }
+
+    // Package-private so that tests can start the horizon on another day
+    void rebuild(long today) {
+        horizonLock.writeLock().lock();
+        try {
+            if (horizon != null && horizon.firstNight() == today) {
+                return;
+            }
+            Horizon rebuilt = new Horizon(today, new ConcurrentHashMap<>());
+            intervalIndex.forEach((roomId, interval) -> {
+                int from = (int) Math.max(0, interval.startDate().toEpochDay() - today);
+                int to = (int) Math.min(HORIZON_NIGHTS, interval.endDate().toEpochDay() - today);
+                if (from < to) {
+                    setRange(rebuilt.nightsByRoom().computeIfAbsent(roomId, id -> new long[HORIZON_WORDS]),
+                            from, to, true);
+                }
+            });
+            horizon = rebuilt;
+        } finally {
+            horizonLock.writeLock().unlock();
+        }
+    }
+
+    private static boolean covers(Horizon horizon, LocalDate startDate, LocalDate endDate) {
+        return startDate.toEpochDay() >= horizon.firstNight()
+                && endDate.toEpochDay() <= horizon.firstNight() + HORIZON_NIGHTS;
+    }
+
+    private static boolean intersects(long[] nights, long[] mask) {
+        synchronized (nights) {
+            for (int i = 0; i < HORIZON_WORDS; i++) {
+                if ((nights[i] & mask[i]) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    // Bits [from, to) of the bitmap; callers guarantee 0 <= from < to <= HORIZON_NIGHTS
+    static boolean anySet(long[] words, int from, int to) {
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (firstWord == lastWord) {
+            return (words[firstWord] & firstMask & lastMask) != 0;
+        }
+        if ((words[firstWord] & firstMask) != 0) {
+            return true;
+        }
+        for (int i = firstWord + 1; i < lastWord; i++) {
+            if (words[i] != 0) {
+                return true;
+            }
+        }
+        return (words[lastWord] & lastMask) != 0;
+    }
+
+    static void setRange(long[] words, int from, int to, boolean value) {
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        for (int i = firstWord; i <= lastWord; i++) {
+            long mask = -1L;
+            if (i == firstWord) {
+                mask &= firstMask;
+            }
+            if (i == lastWord) {
+                mask &= lastMask;
+            }
+            words[i] = value ? words[i] | mask : words[i] & ~mask;
+        }
+    }
+}
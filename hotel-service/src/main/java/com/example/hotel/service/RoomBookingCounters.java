@@ -0,0 +1,75 @@
+package com.example.hotel.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-room booking counters that confirmations bump in memory instead of rewriting the room row.
+ * Pending deltas are written back periodically with one batched relative UPDATE, so concurrent
+ * confirmations of a popular room neither contend on its row nor lose increments.
+ */
+@Component
+public class RoomBookingCounters {
+    private static final Logger log = LoggerFactory.getLogger(RoomBookingCounters.class);
+    private static final String FLUSH_SQL = "update room set times_booked = times_booked + ? where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CatalogSnapshot catalogSnapshot;
+    private final ConcurrentMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    public RoomBookingCounters(JdbcTemplate jdbcTemplate, CatalogSnapshot catalogSnapshot) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.catalogSnapshot = catalogSnapshot;
+    }
+
+    public void increment(Long roomId) {
+        pending.computeIfAbsent(roomId, id -> new LongAdder()).increment();
+    }
+
+    /**
+     * Bookings counted in memory but not yet written to {@code room.times_booked}.
+     */
+    public long pending(Long roomId) {
+        LongAdder adder = pending.get(roomId);
+        return adder != null ? adder.sum() : 0;
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${hotel.stats.flush-interval-ms:1000}")
+    public void flush() {
+        List<Object[]> deltas = new ArrayList<>();
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta != 0) {
+                deltas.add(new Object[] {delta, entry.getKey()});
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, deltas);
+            catalogSnapshot.countersChanged(); // room lists carry times_booked
+        } catch (DataAccessException e) {
+            // Keep the deltas for the next flush rather than losing them
+            log.error("Failed to flush booking counters for {} rooms, will retry", deltas.size(), e);
+            deltas.forEach(delta -> pending.computeIfAbsent((Long) delta[1], id -> new LongAdder()).add((Long) delta[0]));
+        }
+    }
+
+    public void forget(Long roomId) {
+        pending.remove(roomId);
+    }
+}
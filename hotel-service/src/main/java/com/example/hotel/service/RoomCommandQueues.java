@@ -0,0 +1,294 @@
+package com.example.hotel.service;
+
+import com.example.hotel.exception.ResourceNotFoundException;
+import com.example.hotel.exception.RoomUnavailableException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Queue execution mode ({@code hotel.execution.mode=queue}) for single-room reservation operations.
+ * Each room has its own queue with at most one worker draining it at a time, so its operations run
+ * in arrival order without contending for the stripe lock. A worker takes up to a batch of pending
+ * operations and runs them in one transaction; operations that fail with a business error (they do
+ * so before writing anything) fail alone, while any other failure rolls the batch back and its
+ * operations are retried one transaction each.
+ *
+ * The worker still takes the room's stripe in {@link RoomLockManager}, uncontended in the common
+ * case, because multi-room operations (group holds, expiry) keep serializing through the stripes.
+ * A caller already inside a transaction runs inline, as in the default mode, so it sees its own
+ * uncommitted writes.
+ *
+ * {@code hotel.room.queue.wait} covers every room. Per room, only the busiest ones are published:
+ * every refresh interval the {@code hotel.execution.queue.busiest-rooms} rooms that ran the most
+ * operations get a {@code room}-tagged gauge of their operation count and mean wait over that
+ * interval, so the number of series stays bounded however many rooms there are.
+ */
+@Component
+public class RoomCommandQueues {
+    private static final Logger log = LoggerFactory.getLogger(RoomCommandQueues.class);
+
+    private final boolean enabled;
+    private final TransactionTemplate transactionTemplate;
+    private final RoomLockManager roomLockManager;
+    private final int batchSize;
+    private final int capacity;
+    private final int busiestRooms;
+    // Rooms are never dropped: there is one small entry per room that ever had a queued operation
+    private final ConcurrentMap<Long, RoomQueue> queues = new ConcurrentHashMap<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final ExecutorService workers;
+    private final Timer waitTimer;
+    private final DistributionSummary batchSizes;
+    private final MultiGauge busiestOperations;
+    private final MultiGauge busiestWait;
+
+    public RoomCommandQueues(TransactionTemplate transactionTemplate,
+                             RoomLockManager roomLockManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${hotel.execution.mode:locks}") String mode,
+                             @Value("${hotel.execution.queue.workers:8}") int workerCount,
+                             @Value("${hotel.execution.queue.batch-size:32}") int batchSize,
+                             @Value("${hotel.execution.queue.capacity:1000}") int capacity,
+                             @Value("${hotel.execution.queue.busiest-rooms:10}") int busiestRooms) {
+        if (!mode.equals("locks") && !mode.equals("queue")) {
+            throw new IllegalArgumentException("hotel.execution.mode must be locks or queue");
+        }
+        this.enabled = mode.equals("queue");
+        this.transactionTemplate = transactionTemplate;
+        this.roomLockManager = roomLockManager;
+        this.batchSize = batchSize;
+        this.capacity = capacity;
+        this.busiestRooms = busiestRooms;
+        AtomicInteger threads = new AtomicInteger();
+        this.workers = enabled
+                ? Executors.newFixedThreadPool(workerCount, task -> {
+                    Thread thread = new Thread(task, "room-queue-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+        Gauge.builder("hotel.room.queue.depth", depth, AtomicInteger::get)
+                .description("Reservation operations waiting in room queues")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("hotel.room.queue.wait")
+                .description("Time a reservation operation waits in its room queue")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("hotel.room.queue.batch")
+                .description("Reservation operations committed per room transaction")
+                .register(meterRegistry);
+        this.busiestOperations = MultiGauge.builder("hotel.room.queue.busiest.operations")
+                .description("Operations run by each of the busiest rooms over the last refresh interval")
+                .register(meterRegistry);
+        this.busiestWait = MultiGauge.builder("hotel.room.queue.busiest.wait")
+                .description("Mean queue wait of each of the busiest rooms over the last refresh interval")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether the caller's operation should go through {@link #submit}.
+     */
+    public boolean accepts() {
+        return enabled && !TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    /**
+     * Queues {@code action} for {@code roomId} and waits for it to commit.
+     */
+    public <T> T submit(Long roomId, Supplier<T> action) {
+        RoomQueue queue = queues.computeIfAbsent(roomId, RoomQueue::new);
+        if (queue.size.incrementAndGet() > capacity) {
+            queue.size.decrementAndGet();
+            throw new RejectedExecutionException("Too many pending operations for room " + roomId);
+        }
+        Command<T> command = new Command<>(action);
+        queue.commands.add(command);
+        depth.incrementAndGet();
+        schedule(queue);
+        return command.await();
+    }
+
+    /**
+     * Replaces the per-room gauges with the busiest rooms since the previous refresh.
+     */
+    @Scheduled(fixedDelayString = "${hotel.execution.queue.busiest-refresh-ms:10000}")
+    public void publishBusiestRooms() {
+        if (!enabled) {
+            return;
+        }
+        List<RoomLoad> loads = new ArrayList<>();
+        for (RoomQueue queue : queues.values()) {
+            long operations = queue.operations.sumThenReset();
+            long waitNanos = queue.waitNanos.sumThenReset();
+            if (operations > 0) {
+                loads.add(new RoomLoad(queue.roomId, operations, waitNanos));
+            }
+        }
+        List<RoomLoad> busiest = loads.stream()
+                .sorted(Comparator.comparingLong(RoomLoad::operations).reversed())
+                .limit(busiestRooms)
+                .toList();
+        busiestOperations.register(busiest.stream()
+                .map(load -> MultiGauge.Row.of(load.tags(), load.operations()))
+                .toList(), true);
+        busiestWait.register(busiest.stream()
+                .map(load -> MultiGauge.Row.of(load.tags(), load.waitNanos() / (double) load.operations() / 1e9))
+                .toList(), true);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (workers != null) {
+            workers.shutdown();
+            workers.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private void schedule(RoomQueue queue) {
+        if (queue.scheduled.compareAndSet(false, true)) {
+            workers.execute(() -> drain(queue));
+        }
+    }
+
+    // One batch per turn, then the room goes to the back of the pool's queue so busy rooms cannot starve the others
+    private void drain(RoomQueue queue) {
+        try {
+            List<Command<?>> batch = new ArrayList<>(batchSize);
+            Command<?> command;
+            while (batch.size() < batchSize && (command = queue.commands.poll()) != null) {
+                batch.add(command);
+            }
+            queue.size.addAndGet(-batch.size());
+            depth.addAndGet(-batch.size());
+            if (!batch.isEmpty()) {
+                run(queue, batch);
+            }
+        } finally {
+            queue.scheduled.set(false);
+            if (!queue.commands.isEmpty()) {
+                schedule(queue);
+            }
+        }
+    }
+
+    private void run(RoomQueue queue, List<Command<?>> batch) {
+        Long roomId = queue.roomId;
+        long started = System.nanoTime();
+        for (Command<?> command : batch) {
+            waitTimer.record(started - command.enqueuedAt, TimeUnit.NANOSECONDS);
+            queue.waitNanos.add(started - command.enqueuedAt);
+        }
+        queue.operations.add(batch.size());
+        batchSizes.record(batch.size());
+        List<Runnable> outcomes = new ArrayList<>(batch.size());
+        try {
+            roomLockManager.withRoomLock(roomId, () -> transactionTemplate.execute(status -> {
+                batch.forEach(command -> outcomes.add(command.runInBatch()));
+                return null;
+            }));
+        } catch (RuntimeException | Error e) {
+            if (batch.size() == 1) {
+                batch.get(0).result.completeExceptionally(e);
+                return;
+            }
+            log.warn("Batch of {} operations for room {} rolled back, retrying them one by one", batch.size(), roomId, e);
+            batch.forEach(command -> command.runAlone(roomId));
+            return;
+        }
+        outcomes.forEach(Runnable::run);
+    }
+
+    private record RoomLoad(Long roomId, long operations, long waitNanos) {
+        Tags tags() {
+            return Tags.of("room", roomId.toString());
+        }
+    }
+
+    private static final class RoomQueue {
+        final Long roomId;
+        final Queue<Command<?>> commands = new ConcurrentLinkedQueue<>();
+        final AtomicInteger size = new AtomicInteger();
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        // Since the last publishBusiestRooms
+        final LongAdder operations = new LongAdder();
+        final LongAdder waitNanos = new LongAdder();
+
+        RoomQueue(Long roomId) {
+            this.roomId = roomId;
+        }
+    }
+
+    private final class Command<T> {
+        final Supplier<T> action;
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final long enqueuedAt = System.nanoTime();
+
+        Command(Supplier<T> action) {
+            this.action = action;
+        }
+
+        // Returns how to complete the caller once the batch has committed
+        Runnable runInBatch() {
+            try {
+                T value = action.get();
+                return () -> result.complete(value);
+            } catch (RoomUnavailableException | ResourceNotFoundException | IllegalArgumentException | IllegalStateException e) {
+                return () -> result.completeExceptionally(e);
+            }
+        }
+
+        void runAlone(Long roomId) {
+            try {
+                result.complete(roomLockManager.withRoomLock(roomId,
+                        () -> transactionTemplate.execute(status -> action.get())));
+            } catch (RuntimeException | Error e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        T await() {
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof Error cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.hotel.service;
+
+import com.example.hotel.model.RoomReservationLock;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * In-memory index of active (HELD/CONFIRMED) reservation intervals, one sorted set per room.
+ * Conflict checks are answered from here, the lock table is only written to.
+ *
+ * Intervals are ranges of nights: a stay [startDate, endDate) occupies every night from the check-in
+ * date up to, but not including, the check-out date, so a check-out and a check-in on the same day
+ * do not conflict. Active intervals of a room never overlap (a conflicting hold is rejected), so
+ * ordering them by start date also orders them by end date and the only candidate for a conflict
+ * with [start, end) is the last interval starting before {@code end}.
+ */
+@Component
+public class RoomIntervalIndex {
+    private static final Logger log = LoggerFactory.getLogger(RoomIntervalIndex.class);
+
+    static final List<RoomReservationLock.Status> ACTIVE_STATUSES =
+            List.of(RoomReservationLock.Status.HELD, RoomReservationLock.Status.CONFIRMED);
+
+    private final ReservationLockStore lockStore;
+    private final ConcurrentMap<Long, NavigableMap<LocalDate, Interval>> intervalsByRoom = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Long> roomByRequestId = new ConcurrentHashMap<>();
+
+    public RoomIntervalIndex(ReservationLockStore lockStore) {
+        this.lockStore = lockStore;
+    }
+
+    public record Interval(String requestId, LocalDate startDate, LocalDate endDate) {}
+
+    @PostConstruct
+    void load() {
+        List<RoomReservationLock> active = lockStore.findByStatusIn(ACTIVE_STATUSES);
+        active.forEach(this::add);
+        log.info("Loaded {} active reservation intervals for {} rooms", active.size(), intervalsByRoom.size());
+    }
+
+    public boolean hasConflict(Long roomId, LocalDate startDate, LocalDate endDate) {
+        NavigableMap<LocalDate, Interval> intervals = intervalsByRoom.get(roomId);
+        if (intervals == null) {
+            return false;
+        }
+        synchronized (intervals) {
+            Map.Entry<LocalDate, Interval> candidate = intervals.lowerEntry(endDate);
+            return candidate != null && candidate.getValue().endDate().isAfter(startDate);
+        }
+    }
+
+    /**
+     * Room of the active lock created for {@code requestId}, or null when no such lock is active.
+     */
+    public Long roomOf(String requestId) {
+        return roomByRequestId.get(requestId);
+    }
+
+    // Both return whether the index changed, so derived counters can skip repeated calls
+    public boolean add(RoomReservationLock lock) {
+        NavigableMap<LocalDate, Interval> intervals =
+                intervalsByRoom.computeIfAbsent(lock.getRoomId(), id -> new TreeMap<>());
+        Interval previous;
+        synchronized (intervals) {
+            previous = intervals.put(lock.getStartDate(),
+                    new Interval(lock.getRequestId(), lock.getStartDate(), lock.getEndDate()));
+        }
+        roomByRequestId.put(lock.getRequestId(), lock.getRoomId());
+        return previous == null;
+    }
+
+    public boolean remove(RoomReservationLock lock) {
+        NavigableMap<LocalDate, Interval> intervals = intervalsByRoom.get(lock.getRoomId());
+        if (intervals == null) {
+            return false;
+        }
+        synchronized (intervals) {
+            Interval current = intervals.get(lock.getStartDate());
+            if (current != null && current.requestId().equals(lock.getRequestId())) {
+                intervals.remove(lock.getStartDate());
+                roomByRequestId.remove(lock.getRequestId());
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void forEach(BiConsumer<Long, Interval> action) {
+        intervalsByRoom.forEach((roomId, intervals) -> {
+            synchronized (intervals) {
+                intervals.values().forEach(interval -> action.accept(roomId, interval));
+            }
+        });
+    }
+
+    public void forEachOf(Long roomId, Consumer<Interval> action) {
+        NavigableMap<LocalDate, Interval> intervals = intervalsByRoom.get(roomId);
+        if (intervals != null) {
+            synchronized (intervals) {
+                intervals.values().forEach(action);
+            }
+        }
+    }
+
+    public void removeRoom(Long roomId) {
+        NavigableMap<LocalDate, Interval> intervals = intervalsByRoom.remove(roomId);
+        if (intervals != null) {
+            synchronized (intervals) {
+                intervals.values().forEach(interval -> roomByRequestId.remove(interval.requestId()));
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.hotel.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped mutual exclusion for reservation operations keyed by room id.
+ * Operations on the same room run one at a time, so the check-then-insert in hold cannot race,
+ * while rooms hashed to different stripes proceed in parallel.
+ *
+ * The lock must be taken outside the transaction, so that it is only released after commit.
+ */
+@Component
+public class RoomLockManager {
+    private final ReentrantLock[] stripes;
+
+    public RoomLockManager(@Value("${hotel.locks.stripes:64}") int stripeCount) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("hotel.locks.stripes must be positive");
+        }
+        // Round up to a power of two so that a stripe is picked with a mask
+        int size = 1;
+        while (size < stripeCount) {
+            size <<= 1;
+        }
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T withRoomLock(Long roomId, Supplier<T> action) {
+        ReentrantLock lock = stripes[stripeOf(roomId)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs {@code action} holding the stripes of all {@code roomIds}. Stripes are always taken in
+     * ascending order, so two multi-room callers cannot deadlock each other.
+     */
+    public <T> T withRoomLocks(Collection<Long> roomIds, Supplier<T> action) {
+        int[] ordered = roomIds.stream().mapToInt(this::stripeOf).distinct().sorted().toArray();
+        int acquired = 0;
+        try {
+            for (int stripe : ordered) {
+                stripes[stripe].lock();
+                acquired++;
+            }
+            return action.get();
+        } finally {
+            for (int i = acquired - 1; i >= 0; i--) {
+                stripes[ordered[i]].unlock();
+            }
+        }
+    }
+
+    int stripeOf(Long roomId) {
+        int h = roomId.hashCode();
+        h ^= (h >>> 16);
+        return h & (stripes.length - 1);
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.hotel.service;
+
+import com.example.hotel.dto.RoomTypeAvailability;
+import com.example.hotel.model.RoomReservationLock;
+import com.example.hotel.repo.RoomRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Free units per night for every room type of a hotel, over the same rolling horizon as
+ * {@link RoomAvailabilityCalendar}. Slot {@code i} of a type's array counts the rooms of that type
+ * with the night {@code firstNight + i} free; a lock taking a typed room decrements each of its
+ * nights atomically and releasing it increments them again. Asking whether a type has a unit left
+ * for a stay is then a scan of the stay's nights, whatever the number of rooms.
+ *
+ * Like the calendar this is a projection of {@link RoomIntervalIndex}. Counter updates share the
+ * read lock with the index change they follow, and a rebuild (day rollover, room added, retyped,
+ * made (un)available or deleted) takes the write lock, so a rebuild never counts a lock its updater
+ * is about to count. Only rooms marked available are units of their type.
+ */
+@Component
+public class RoomTypeInventory {
+    private static final Logger log = LoggerFactory.getLogger(RoomTypeInventory.class);
+    private static final int HORIZON_NIGHTS = RoomAvailabilityCalendar.HORIZON_NIGHTS;
+
+    public record TypeKey(Long hotelId, String roomType) {}
+
+    private final RoomRepository roomRepository;
+    private final RoomIntervalIndex intervalIndex;
+    private final ReadWriteLock horizonLock = new ReentrantReadWriteLock();
+    private final ConcurrentMap<Long, TypeKey> typeByRoom = new ConcurrentHashMap<>();
+    // Membership and counters only change under the write lock
+    private final ConcurrentMap<TypeKey, Set<Long>> roomsByType = new ConcurrentHashMap<>();
+    private final ConcurrentMap<TypeKey, AtomicIntegerArray> freeByType = new ConcurrentHashMap<>();
+    private volatile long firstNight;
+
+    public RoomTypeInventory(RoomRepository roomRepository, RoomIntervalIndex intervalIndex) {
+        this.roomRepository = roomRepository;
+        this.intervalIndex = intervalIndex;
+    }
+
+    @PostConstruct
+    void load() {
+        for (Object[] row : roomRepository.findTypedRooms()) {
+            TypeKey key = keyOf(row);
+            typeByRoom.put((Long) row[0], key);
+            roomsByType.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add((Long) row[0]);
+        }
+        rebuildAll(LocalDate.now().toEpochDay());
+        log.info("Loaded {} room types with {} rooms", roomsByType.size(), typeByRoom.size());
+    }
+
+    public boolean exists(Long hotelId, String roomType) {
+        return roomsByType.containsKey(new TypeKey(hotelId, roomType));
+    }
+
+    public List<Long> rooms(Long hotelId, String roomType) {
+        Set<Long> rooms = roomsByType.get(new TypeKey(hotelId, roomType));
+        return rooms != null ? new ArrayList<>(rooms) : List.of();
+    }
+
+    /**
+     * Units of the type free for every night of [startDate, endDate). Stays reaching past the
+     * horizon are counted room by room against the index.
+     */
+    public int available(Long hotelId, String roomType, LocalDate startDate, LocalDate endDate) {
+        TypeKey key = new TypeKey(hotelId, roomType);
+        rollOver();
+        horizonLock.readLock().lock();
+        try {
+            long today = firstNight;
+            Set<Long> rooms = roomsByType.get(key);
+            if (rooms == null) {
+                return 0;
+            }
+            int from = (int) (startDate.toEpochDay() - today);
+            int to = (int) (endDate.toEpochDay() - today);
+            if (from < 0 || to > HORIZON_NIGHTS) {
+                return (int) rooms.stream()
+                        .filter(roomId -> !intervalIndex.hasConflict(roomId, startDate, endDate))
+                        .count();
+            }
+            AtomicIntegerArray free = freeByType.get(key);
+            int available = rooms.size();
+            for (int night = from; night < to && available > 0; night++) {
+                available = Math.min(available, free.get(night));
+            }
+            return available;
+        } finally {
+            horizonLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Units and free units of every room type of the hotel, by type name.
+     */
+    public List<RoomTypeAvailability> availability(Long hotelId, LocalDate startDate, LocalDate endDate) {
+        Map<String, RoomTypeAvailability> byType = new TreeMap<>();
+        roomsByType.forEach((key, rooms) -> {
+            if (key.hotelId().equals(hotelId)) {
+                byType.put(key.roomType(), new RoomTypeAvailability(key.roomType(), rooms.size(),
+                        available(hotelId, key.roomType(), startDate, endDate)));
+            }
+        });
+        return new ArrayList<>(byType.values());
+    }
+
+    /**
+     * Runs {@code indexChange} and, if it changed the index, takes the lock's nights from (or gives
+     * them back to) the room's type.
+     */
+    public void apply(RoomReservationLock lock, boolean occupied, BooleanSupplier indexChange) {
+        rollOver(); // the write lock cannot be taken while holding the read lock
+        horizonLock.readLock().lock();
+        try {
+            long today = firstNight;
+            if (!indexChange.getAsBoolean()) {
+                return;
+            }
+            TypeKey key = typeByRoom.get(lock.getRoomId());
+            if (key != null) {
+                count(freeByType.get(key), today, lock.getStartDate(), lock.getEndDate(), occupied ? -1 : 1);
+            }
+        } finally {
+            horizonLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Records the type of a room after it was created or updated. A room without a type, or not
+     * available, is not a unit of any type.
+     */
+    public void putRoom(Long roomId, Long hotelId, String roomType, boolean available) {
+        Map<Long, TypeKey> changes = new HashMap<>();
+        changes.put(roomId, available && hotelId != null && roomType != null ? new TypeKey(hotelId, roomType) : null);
+        update(changes);
+    }
+
+    /**
+     * Refreshes rooms whose availability changed in bulk from their committed
+     * {@link RoomRepository#findStatesMatching} rows. Each affected type is rebuilt once.
+     */
+    public void refreshRooms(List<Object[]> states) {
+        Map<Long, TypeKey> changes = new HashMap<>();
+        for (Object[] row : states) {
+            boolean bookable = (Boolean) row[3] && row[1] != null && row[2] != null;
+            changes.put((Long) row[0], bookable ? keyOf(row) : null);
+        }
+        update(changes);
+    }
+
+    public void removeRoom(Long roomId) {
+        putRoom(roomId, null, null, false);
+    }
+
+    // A null key takes the room out of the inventory
+    private void update(Map<Long, TypeKey> changes) {
+        changes.entrySet().removeIf(change -> Objects.equals(change.getValue(), typeByRoom.get(change.getKey())));
+        if (changes.isEmpty()) {
+            return;
+        }
+        horizonLock.writeLock().lock();
+        try {
+            Set<TypeKey> touched = new HashSet<>();
+            changes.forEach((roomId, key) -> {
+                TypeKey previous = key != null ? typeByRoom.put(roomId, key) : typeByRoom.remove(roomId);
+                if (previous != null) {
+                    roomsByType.get(previous).remove(roomId);
+                    touched.add(previous);
+                }
+                if (key != null) {
+                    roomsByType.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(roomId);
+                    touched.add(key);
+                }
+            });
+            for (TypeKey key : touched) {
+                if (roomsByType.get(key).isEmpty()) {
+                    roomsByType.remove(key);
+                    freeByType.remove(key);
+                } else {
+                    rebuild(key, firstNight);
+                }
+            }
+        } finally {
+            horizonLock.writeLock().unlock();
+        }
+    }
+
+    private static TypeKey keyOf(Object[] row) {
+        return new TypeKey((Long) row[1], (String) row[2]);
+    }
+
+    private void rollOver() {
+        long today = LocalDate.now().toEpochDay();
+        if (firstNight != today) {
+            rebuildAll(today);
+        }
+    }
+
+    private void rebuildAll(long today) {
+        horizonLock.writeLock().lock();
+        try {
+            if (firstNight == today) {
+                return;
+            }
+            firstNight = today;
+            roomsByType.keySet().forEach(key -> rebuild(key, today));
+        } finally {
+            horizonLock.writeLock().unlock();
+        }
+    }
+
+    // Called with the write lock held
+    private void rebuild(TypeKey key, long today) {
+        Set<Long> rooms = roomsByType.get(key);
+        AtomicIntegerArray free = new AtomicIntegerArray(HORIZON_NIGHTS);
+        for (int night = 0; night < HORIZON_NIGHTS; night++) {
+            free.set(night, rooms.size());
+        }
+        for (Long roomId : rooms) {
+            intervalIndex.forEachOf(roomId, interval ->
+                    count(free, today, interval.startDate(), interval.endDate(), -1));
+        }
+        freeByType.put(key, free);
+    }
+
+    private static void count(AtomicIntegerArray free, long today, LocalDate startDate, LocalDate endDate, int delta) {
+        int from = (int) Math.max(0, startDate.toEpochDay() - today);
+        int to = (int) Math.min(HORIZON_NIGHTS, endDate.toEpochDay() - today);
+        for (int night = from; night < to; night++) {
+            free.addAndGet(night, delta);
+        }
+    }
+}
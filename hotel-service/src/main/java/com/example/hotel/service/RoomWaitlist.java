@@ -0,0 +1,43 @@
+package com.example.hotel.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rooms with waiters and the subset of them that had nights freed since the waitlist last looked.
+ * Releases and expiries report every freed room here; rooms nobody waits for are dropped at once,
+ * so the common release costs one set lookup. {@link WaitlistService} drains the freed rooms.
+ */
+@Component
+public class RoomWaitlist {
+    private final Set<Long> watchedRooms = ConcurrentHashMap.newKeySet();
+    private final Set<Long> freedRooms = ConcurrentHashMap.newKeySet();
+
+    public void watch(Long roomId) {
+        watchedRooms.add(roomId);
+    }
+
+    public void unwatch(Long roomId) {
+        watchedRooms.remove(roomId);
+    }
+
+    public void freed(Long roomId) {
+        if (watchedRooms.contains(roomId)) {
+            freedRooms.add(roomId);
+        }
+    }
+
+    public List<Long> drainFreed() {
+        List<Long> drained = new ArrayList<>();
+        for (Long roomId : freedRooms) {
+            if (freedRooms.remove(roomId)) {
+                drained.add(roomId);
+            }
+        }
+        return drained;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.hotel.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls with the same key: the first caller runs the action, callers arriving
+ * while it is in flight wait for and share its outcome, result or exception. Once the call finishes
+ * the key is forgotten, so a later call runs the action again.
+ *
+ * Only a repeat of the same call shares the outcome: a caller whose {@code call} differs from the
+ * one in flight under its key is turned away with {@link IllegalStateException}.
+ */
+final class SingleFlight<K, V> {
+    private record Flight<V>(Object call, CompletableFuture<V> outcome) {}
+
+    private final ConcurrentMap<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+
+    V run(K key, Object call, Supplier<V> action) {
+        Flight<V> mine = new Flight<>(call, new CompletableFuture<>());
+        Flight<V> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            if (!running.call().equals(call)) {
+                throw new IllegalStateException("Request " + key + " is already in flight for a different call");
+            }
+            return await(running.outcome());
+        }
+        try {
+            V result = action.get();
+            mine.outcome().complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            mine.outcome().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
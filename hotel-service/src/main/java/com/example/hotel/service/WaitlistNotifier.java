@@ -0,0 +1,111 @@
+package com.example.hotel.service;
+
+import com.example.hotel.dto.RoomLockResponse;
+import com.example.hotel.security.ServiceTokenProvider;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tells booking-service that a waitlisted booking got its hold, or that the hold ended before it
+ * was handed off. Calls go out on their own thread with a service token, so a slow booking-service
+ * never delays the scheduler, and failures are retried with backoff: the hold can be granted
+ * before booking-service has committed the booking as waitlisted. The caller learns of a 2xx answer
+ * through its acknowledgement callback; {@link WaitlistService} sends again whatever was never
+ * acknowledged.
+ */
+@Component
+public class WaitlistNotifier {
+    private static final Logger log = LoggerFactory.getLogger(WaitlistNotifier.class);
+    private static final String CORRELATION_ID_HEADER = "X-Correlation-Id";
+
+    private final RestClient restClient;
+    private final ServiceTokenProvider serviceTokens;
+    private final String notifyUrl;
+    private final int attempts;
+    private final long backoffMillis;
+    private final ScheduledExecutorService sender;
+    // requestIds with a notification still being sent or retried
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    public WaitlistNotifier(RestClient.Builder builder,
+                            ServiceTokenProvider serviceTokens,
+                            @Value("${hotel.waitlist.notify-url:}") String notifyUrl,
+                            @Value("${hotel.waitlist.notify-timeout-ms:2000}") int timeoutMs,
+                            @Value("${hotel.waitlist.notify-attempts:3}") int attempts,
+                            @Value("${hotel.waitlist.notify-backoff-ms:500}") long backoffMillis) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeoutMs);
+        requestFactory.setReadTimeout(timeoutMs);
+        this.restClient = builder.requestFactory(requestFactory).build();
+        this.serviceTokens = serviceTokens;
+        this.notifyUrl = notifyUrl;
+        this.attempts = Math.max(1, attempts);
+        this.backoffMillis = backoffMillis;
+        this.sender = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "waitlist-notify");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Sends the lock as it stands (HELD, or RELEASED once the hold ended) unless a notification for
+     * the same requestId is still on its way. An empty notify-url turns notifications off, so
+     * every one counts as acknowledged at once.
+     */
+    public void granted(RoomLockResponse lock, Runnable onAcknowledged) {
+        if (notifyUrl.isBlank()) {
+            onAcknowledged.run();
+            return;
+        }
+        if (inFlight.add(lock.getRequestId())) {
+            sender.execute(() -> send(lock, onAcknowledged, 1));
+        }
+    }
+
+    private void send(RoomLockResponse lock, Runnable onAcknowledged, int attempt) {
+        try {
+            restClient.post()
+                    .uri(notifyUrl)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + serviceTokens.token())
+                    .header(CORRELATION_ID_HEADER, lock.getRequestId())
+                    .body(lock)
+                    .retrieve()
+                    .toBodilessEntity();
+        } catch (Exception e) {
+            if (attempt < attempts && !sender.isShutdown()) {
+                log.debug("Notification of waitlist hold {} failed, attempt {} of {}", lock.getRequestId(), attempt, attempts);
+                sender.schedule(() -> send(lock, onAcknowledged, attempt + 1), backoffMillis << (attempt - 1), TimeUnit.MILLISECONDS);
+                return;
+            }
+            inFlight.remove(lock.getRequestId());
+            log.warn("Failed to notify booking-service of waitlist hold {}, will retry on the next reconciliation",
+                    lock.getRequestId(), e);
+            return;
+        }
+        inFlight.remove(lock.getRequestId());
+        log.info("Notified booking-service of {} waitlist hold {} on room {}",
+                lock.getStatus(), lock.getRequestId(), lock.getRoomId());
+        onAcknowledged.run();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        sender.shutdown();
+        sender.awaitTermination(10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.hotel.service;
+
+import com.example.hotel.dto.RoomActionRequest;
+import com.example.hotel.dto.RoomHoldRequest;
+import com.example.hotel.dto.RoomLockResponse;
+import com.example.hotel.dto.RoomWaitlistResponse;
+import com.example.hotel.exception.ResourceNotFoundException;
+import com.example.hotel.exception.RoomUnavailableException;
+import com.example.hotel.model.RoomReservationLock;
+import com.example.hotel.model.RoomWaitlistEntry;
+import com.example.hotel.repo.RoomRepository;
+import com.example.hotel.repo.RoomWaitlistRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Waitlist of bookings for a room and date range that were rejected because the room was taken.
+ * When a release or an expiry frees nights of a watched room, its waiters are visited in arrival
+ * order and every one whose dates are now free gets a hold under its own requestId, after which
+ * booking-service is notified. The client waits for that hand-off instead of retrying the saga.
+ *
+ * The entry stays NOTIFYING until booking-service acknowledges the notification. Reconciliation
+ * sends unacknowledged ones again with the lock as it now stands, so a booking whose hold expired
+ * in the meantime is told so and cancelled instead of waiting forever.
+ */
+@Service
+public class WaitlistService {
+    private static final Logger log = LoggerFactory.getLogger(WaitlistService.class);
+
+    private final HotelService hotelService;
+    private final RoomWaitlistRepository waitlistRepository;
+    private final RoomRepository roomRepository;
+    private final ReservationLockStore lockStore;
+    private final RoomWaitlist roomWaitlist;
+    private final RoomAvailabilityCalendar availabilityCalendar;
+    private final WaitlistNotifier notifier;
+    private final Counter grantedCounter;
+
+    public WaitlistService(HotelService hotelService,
+                           RoomWaitlistRepository waitlistRepository,
+                           RoomRepository roomRepository,
+                           ReservationLockStore lockStore,
+                           RoomWaitlist roomWaitlist,
+                           RoomAvailabilityCalendar availabilityCalendar,
+                           WaitlistNotifier notifier,
+                           MeterRegistry meterRegistry) {
+        this.hotelService = hotelService;
+        this.waitlistRepository = waitlistRepository;
+        this.roomRepository = roomRepository;
+        this.lockStore = lockStore;
+        this.roomWaitlist = roomWaitlist;
+        this.availabilityCalendar = availabilityCalendar;
+        this.notifier = notifier;
+        this.grantedCounter = Counter.builder("hotel.waitlist.granted")
+                .description("Holds placed for waitlisted bookings")
+                .register(meterRegistry);
+    }
+
+    // Rooms may have been freed while the service was down: look at every watched room once
+    @PostConstruct
+    void load() {
+        List<Long> roomIds = waitlistRepository.findRoomIdsByStatus(RoomWaitlistEntry.Status.WAITING);
+        roomIds.forEach(this::watchAndCheck);
+        log.info("Loaded waitlists of {} rooms", roomIds.size());
+    }
+
+    @Transactional
+    public RoomWaitlistResponse join(Long roomId, RoomHoldRequest request) {
+        RoomWaitlistEntry existing = waitlistRepository.findByRequestId(request.getRequestId()).orElse(null);
+        if (existing != null) {
+            if (!existing.getRoomId().equals(roomId)) {
+                throw new IllegalStateException("Request " + request.getRequestId() + " already waits for another room");
+            }
+            return RoomWaitlistResponse.fromEntity(existing);
+        }
+        if (!request.getEndDate().isAfter(request.getStartDate())) {
+            throw new IllegalArgumentException("End date must be after start date");
+        }
+        if (request.getStartDate().isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Start date must not be in the past");
+        }
+        if (!roomRepository.existsById(roomId)) {
+            throw new ResourceNotFoundException("Room not found with id: " + roomId);
+        }
+        if (lockStore.findByRequestId(request.getRequestId()).isPresent()) {
+            throw new IllegalStateException("A lock already exists for requestId: " + request.getRequestId());
+        }
+
+        RoomWaitlistEntry entry = new RoomWaitlistEntry();
+        entry.setRequestId(request.getRequestId());
+        entry.setRoomId(roomId);
+        entry.setStartDate(request.getStartDate());
+        entry.setEndDate(request.getEndDate());
+        entry.setTtlSeconds(request.getTtlSeconds());
+        entry.setStatus(RoomWaitlistEntry.Status.WAITING);
+        entry.setCreatedAt(Instant.now());
+        RoomWaitlistEntry saved = waitlistRepository.save(entry);
+        // The room may have been freed between the rejected hold and joining
+        TransactionCallbacks.afterCommit(() -> watchAndCheck(roomId));
+        return RoomWaitlistResponse.fromEntity(saved);
+    }
+
+    @Transactional
+    public RoomWaitlistResponse leave(Long roomId, RoomActionRequest request) {
+        RoomWaitlistEntry entry = waitlistRepository.findByRequestId(request.getRequestId())
+                .orElseThrow(() -> new ResourceNotFoundException("Waitlist entry not found for requestId: " + request.getRequestId()));
+        if (!entry.getRoomId().equals(roomId)) {
+            throw new IllegalStateException("Request " + request.getRequestId() + " already waits for another room");
+        }
+        if (entry.getStatus() == RoomWaitlistEntry.Status.WAITING) {
+            entry.setStatus(RoomWaitlistEntry.Status.CANCELLED);
+        }
+        return RoomWaitlistResponse.fromEntity(entry);
+    }
+
+    @Scheduled(fixedDelayString = "${hotel.waitlist.poll-ms:200}")
+    public void promoteFreedRooms() {
+        for (Long roomId : roomWaitlist.drainFreed()) {
+            try {
+                promote(roomId);
+            } catch (Exception e) {
+                log.error("Failed to promote waitlist of room {}, will retry", roomId, e);
+                roomWaitlist.freed(roomId);
+            }
+        }
+    }
+
+    private void promote(Long roomId) {
+        LocalDate today = LocalDate.now();
+        int waiting = 0;
+        for (RoomWaitlistEntry entry : waitlistRepository.findByRoomIdAndStatusOrderById(roomId, RoomWaitlistEntry.Status.WAITING)) {
+            if (entry.getStartDate().isBefore(today)) {
+                finish(entry, RoomWaitlistEntry.Status.CANCELLED);
+                continue;
+            }
+            if (!availabilityCalendar.isFree(roomId, entry.getStartDate(), entry.getEndDate())) {
+                waiting++;
+                continue;
+            }
+            RoomHoldRequest request = new RoomHoldRequest(entry.getRequestId(), entry.getStartDate(), entry.getEndDate());
+            request.setTtlSeconds(entry.getTtlSeconds());
+            RoomLockResponse lock;
+            try {
+                lock = hotelService.holdRoom(request, roomId);
+            } catch (RoomUnavailableException e) {
+                waiting++; // taken again since the calendar was read
+                continue;
+            } catch (ResourceNotFoundException e) {
+                finish(entry, RoomWaitlistEntry.Status.CANCELLED);
+                continue;
+            }
+            finish(entry, RoomWaitlistEntry.Status.NOTIFYING);
+            grantedCounter.increment();
+            log.info("Waitlisted request {} got room {} for {} - {}",
+                    entry.getRequestId(), roomId, entry.getStartDate(), entry.getEndDate());
+            handOff(lock);
+        }
+        if (waiting == 0) {
+            roomWaitlist.unwatch(roomId);
+            // A join that committed while this pass ran must not lose its watch
+            if (waitlistRepository.existsByRoomIdAndStatus(roomId, RoomWaitlistEntry.Status.WAITING)) {
+                watchAndCheck(roomId);
+            }
+        }
+    }
+
+    /**
+     * Hands off again every hold booking-service has not acknowledged: the lock still held, or its
+     * end when it expired or was released meanwhile.
+     */
+    @Scheduled(fixedDelayString = "${hotel.waitlist.reconcile-ms:30000}")
+    public void reconcileNotifications() {
+        for (RoomWaitlistEntry entry : waitlistRepository.findByStatusOrderById(RoomWaitlistEntry.Status.NOTIFYING)) {
+            RoomLockResponse lock = lockStore.findByRequestId(entry.getRequestId())
+                    .map(RoomLockResponse::fromEntity)
+                    .orElseGet(() -> archivedHold(entry));
+            if (lock.getStatus().equals(RoomReservationLock.Status.CONFIRMED.name())) {
+                // booking-service confirmed the hold, only its answer got lost
+                waitlistRepository.updateStatus(entry.getRequestId(),
+                        RoomWaitlistEntry.Status.NOTIFYING, RoomWaitlistEntry.Status.GRANTED);
+            } else {
+                handOff(lock);
+            }
+        }
+    }
+
+    private void handOff(RoomLockResponse lock) {
+        RoomWaitlistEntry.Status outcome = lock.getStatus().equals(RoomReservationLock.Status.HELD.name())
+                ? RoomWaitlistEntry.Status.GRANTED
+                : RoomWaitlistEntry.Status.EXPIRED;
+        notifier.granted(lock, () -> {
+            try {
+                waitlistRepository.updateStatus(lock.getRequestId(), RoomWaitlistEntry.Status.NOTIFYING, outcome);
+            } catch (Exception e) {
+                log.warn("Failed to record the hand-off of waitlist hold {}, it will be sent again", lock.getRequestId(), e);
+            }
+        });
+    }
+
+    // The released lock was archived already; the hold it stood for is over
+    private static RoomLockResponse archivedHold(RoomWaitlistEntry entry) {
+        RoomLockResponse lock = new RoomLockResponse();
+        lock.setRequestId(entry.getRequestId());
+        lock.setRoomId(entry.getRoomId());
+        lock.setStartDate(entry.getStartDate());
+        lock.setEndDate(entry.getEndDate());
+        lock.setStatus(RoomReservationLock.Status.RELEASED.name());
+        return lock;
+    }
+
+    private void finish(RoomWaitlistEntry entry, RoomWaitlistEntry.Status status) {
+        entry.setStatus(status);
+        waitlistRepository.save(entry);
+    }
+
+    private void watchAndCheck(Long roomId) {
+        roomWaitlist.watch(roomId);
+        roomWaitlist.freed(roomId);
+    }
+}
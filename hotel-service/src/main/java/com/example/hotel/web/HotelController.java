@@ -1,29 +1,77 @@
 package com.example.hotel.web;
 
+import com.example.hotel.dto.AvailabilityMatrix;
 import com.example.hotel.dto.HotelRequest;
 import com.example.hotel.dto.HotelResponse;
+import com.example.hotel.dto.HotelSearchResult;
+import com.example.hotel.dto.RoomHoldRequest;
+import com.example.hotel.dto.RoomLockResponse;
 import com.example.hotel.dto.RoomResponse;
+import com.example.hotel.dto.RoomTypeAvailability;
+import com.example.hotel.service.CatalogSnapshot;
+import com.example.hotel.service.CatalogStreamService;
 import com.example.hotel.service.HotelService;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/hotels")
 @io.swagger.v3.oas.annotations.security.SecurityRequirement(name = "bearer-jwt")
 public class HotelController {
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String NEXT_AFTER_HEADER = "X-Next-After";
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
     private final HotelService hotelService;
+    private final CatalogStreamService catalogStreamService;
+    private final CatalogSnapshot catalogSnapshot;
 
-    public HotelController(HotelService hotelService) {
+    public HotelController(HotelService hotelService,
+                           CatalogStreamService catalogStreamService,
+                           CatalogSnapshot catalogSnapshot) {
         this.hotelService = hotelService;
+        this.catalogStreamService = catalogStreamService;
+        this.catalogSnapshot = catalogSnapshot;
+    }
+
+    // The whole list comes from the in-memory snapshot, revalidated by ETag
+    @GetMapping(params = {"!after", "!limit"})
+    public ResponseEntity<byte[]> list(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                       @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return snapshot(catalogSnapshot.hotels(), ifNoneMatch, acceptEncoding);
     }
 
+    // With after and/or limit: a keyset page ordered by id
     @GetMapping
-    public List<HotelResponse> list() {
-        return hotelService.listHotels();
+    public ResponseEntity<List<HotelResponse>> page(@RequestParam(required = false) Long after,
+                                                    @RequestParam(required = false) Integer limit) {
+        int pageSize = pageSize(limit);
+        return page(hotelService.listHotels(after, pageSize), pageSize, HotelResponse::getId);
+    }
+
+    @GetMapping(value = "/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> stream() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(catalogStreamService::writeHotels);
+    }
+
+    @GetMapping("/search")
+    public List<HotelSearchResult> search(@RequestParam String q,
+                                          @RequestParam(defaultValue = "10") int limit) {
+        return hotelService.searchHotels(q, limit);
     }
 
     @GetMapping("/{id}")
@@ -51,9 +99,91 @@ public class HotelController {
         hotelService.deleteHotel(id);
     }
 
+    // Room types of the hotel with the number of units free for every night of the stay
+    @GetMapping("/{id}/room-types")
+    public List<RoomTypeAvailability> roomTypes(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return hotelService.roomTypeAvailability(id, startDate, endDate);
+    }
+
+    // Occupied nights of every room of the hotel, run-length encoded, for calendar grids
+    @GetMapping("/{id}/availability")
+    public AvailabilityMatrix availability(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return hotelService.availabilityMatrix(id, from, to);
+    }
+
+    // Hold any free room of the type; the response names the room that was taken
+    @PostMapping("/{id}/room-types/{roomType}/hold")
+    public RoomLockResponse holdRoomOfType(@PathVariable Long id, @PathVariable String roomType,
+                                           @Valid @RequestBody RoomHoldRequest request) {
+        return hotelService.holdRoomOfType(id, roomType, request);
+    }
+
+    @PostMapping("/{id}/room-types/{roomType}/reserve")
+    public RoomLockResponse reserveRoomOfType(@PathVariable Long id, @PathVariable String roomType,
+                                              @Valid @RequestBody RoomHoldRequest request) {
+        return hotelService.reserveRoomOfType(id, roomType, request);
+    }
+
+    @GetMapping(value = "/rooms", params = {"!after", "!limit"})
+    public ResponseEntity<byte[]> rooms(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return snapshot(catalogSnapshot.rooms(), ifNoneMatch, acceptEncoding);
+    }
+
     @GetMapping("/rooms")
-    public List<RoomResponse> rooms() {
-        return hotelService.listRooms();
+    public ResponseEntity<List<RoomResponse>> roomPage(@RequestParam(required = false) Long after,
+                                                       @RequestParam(required = false) Integer limit) {
+        int pageSize = pageSize(limit);
+        return page(hotelService.listRooms(after, pageSize), pageSize, RoomResponse::getId);
+    }
+
+    @GetMapping(value = "/rooms/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamRooms() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(catalogStreamService::writeRooms);
+    }
+
+    private static ResponseEntity<byte[]> snapshot(CatalogSnapshot.Body body, String ifNoneMatch, String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(gzip ? body.gzipEtag() : body.etag());
+        headers.setCacheControl(CacheControl.noCache());
+        headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+        if (ifNoneMatch != null && (ifNoneMatch.contains(headers.getETag()) || ifNoneMatch.trim().equals("*"))) {
+            return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+        }
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return new ResponseEntity<>(gzip ? body.gzip() : body.json(), headers, HttpStatus.OK);
+    }
+
+    // The service caps the page at MAX_PAGE_LIMIT, so the cursor check below must use the same size
+    private static int pageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        return Math.min(limit, HotelService.MAX_PAGE_LIMIT);
+    }
+
+    // A full page means there may be more: the id of its last row is the next cursor
+    private static <T> ResponseEntity<List<T>> page(List<T> rows, int pageSize, Function<T, Long> id) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!rows.isEmpty() && rows.size() >= pageSize) {
+            response.header(NEXT_AFTER_HEADER, String.valueOf(id.apply(rows.get(rows.size() - 1))));
+        }
+        return response.body(rows);
     }
 }
 
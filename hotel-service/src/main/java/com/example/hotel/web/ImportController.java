@@ -0,0 +1,39 @@
+package com.example.hotel.web;
+
+import com.example.hotel.service.CatalogImportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+// Results are written to the response row by row while the body is still being read
+@RestController
+@RequestMapping("/admin/import")
+@io.swagger.v3.oas.annotations.security.SecurityRequirement(name = "bearer-jwt")
+public class ImportController {
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final CatalogImportService catalogImportService;
+
+    public ImportController(CatalogImportService catalogImportService) {
+        this.catalogImportService = catalogImportService;
+    }
+
+    @PreAuthorize("hasAuthority('SCOPE_ADMIN')")
+    @PostMapping(consumes = NDJSON, produces = NDJSON)
+    public void importNdjson(InputStream body, HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        catalogImportService.importNdjson(body, response.getOutputStream());
+    }
+
+    @PreAuthorize("hasAuthority('SCOPE_ADMIN')")
+    @PostMapping(consumes = "text/csv", produces = NDJSON)
+    public void importCsv(InputStream body, HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        catalogImportService.importCsv(body, response.getOutputStream());
+    }
+}
@@ -2,19 +2,37 @@ package com.example.hotel.web;
 
 import com.example.hotel.dto.*;
 import com.example.hotel.service.HotelService;
+import com.example.hotel.service.WaitlistService;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+
 @RestController
 @RequestMapping("/rooms")
 @io.swagger.v3.oas.annotations.security.SecurityRequirement(name = "bearer-jwt")
 public class RoomController {
     private final HotelService hotelService;
+    private final WaitlistService waitlistService;
 
-    public RoomController(HotelService hotelService) {
+    public RoomController(HotelService hotelService, WaitlistService waitlistService) {
         this.hotelService = hotelService;
+        this.waitlistService = waitlistService;
+    }
+
+    @GetMapping("/search")
+    public RoomSearchResponse search(
+            @RequestParam String city,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "1") int capacity,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "20") int limit) {
+        return hotelService.searchAvailableRooms(city, startDate, endDate, capacity, after, limit);
     }
 
     @GetMapping("/{id}")
@@ -42,12 +60,30 @@ public class RoomController {
         hotelService.deleteRoom(id);
     }
 
+    @PreAuthorize("hasAuthority('SCOPE_ADMIN')")
+    @PostMapping("/bulk-update")
+    public RoomBulkUpdateResponse bulkUpdate(@Valid @RequestBody RoomBulkUpdateRequest request) {
+        return hotelService.bulkUpdateRooms(request);
+    }
+
     // Hold availability
     @PostMapping("/{id}/hold")
     public RoomLockResponse hold(@PathVariable Long id, @Valid @RequestBody RoomHoldRequest request) {
         return hotelService.holdRoom(request, id);
     }
 
+    // Hold and confirm in one call
+    @PostMapping("/{id}/reserve")
+    public RoomLockResponse reserve(@PathVariable Long id, @Valid @RequestBody RoomHoldRequest request) {
+        return hotelService.reserveRoom(request, id);
+    }
+
+    @PostMapping("/hold-batch")
+    public ResponseEntity<RoomBatchHoldResponse> holdBatch(@Valid @RequestBody RoomBatchHoldRequest request) {
+        RoomBatchHoldResponse response = hotelService.holdRooms(request);
+        return ResponseEntity.status(response.isHeld() ? HttpStatus.OK : HttpStatus.CONFLICT).body(response);
+    }
+
     @PostMapping("/{id}/confirm")
     public RoomLockResponse confirm(@PathVariable Long id, @Valid @RequestBody RoomActionRequest request) {
         return hotelService.confirmHold(request);
@@ -57,6 +93,18 @@ public class RoomController {
     public RoomLockResponse release(@PathVariable Long id, @Valid @RequestBody RoomActionRequest request) {
         return hotelService.releaseHold(request);
     }
+
+    // Wait for the room to be freed for these dates; the hold is then placed under the same requestId
+    @PostMapping("/{id}/waitlist")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public RoomWaitlistResponse joinWaitlist(@PathVariable Long id, @Valid @RequestBody RoomHoldRequest request) {
+        return waitlistService.join(id, request);
+    }
+
+    @PostMapping("/{id}/waitlist/leave")
+    public RoomWaitlistResponse leaveWaitlist(@PathVariable Long id, @Valid @RequestBody RoomActionRequest request) {
+        return waitlistService.leave(id, request);
+    }
 }
 
 
@@ -1,29 +1,32 @@
 package com.example.hotel.web;
 
-import com.example.hotel.model.Room;
-import com.example.hotel.repo.RoomRepository;
+import com.example.hotel.dto.RoomResponse;
+import com.example.hotel.service.PopularRoomsLeaderboard;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.Comparator;
 import java.util.List;
 
 @RestController
 @RequestMapping("/stats")
 public class StatsController {
-    private final RoomRepository roomRepository;
+    private static final int MAX_LIMIT = 1000;
 
-    public StatsController(RoomRepository roomRepository) {
-        this.roomRepository = roomRepository;
+    private final PopularRoomsLeaderboard leaderboard;
+
+    public StatsController(PopularRoomsLeaderboard leaderboard) {
+        this.leaderboard = leaderboard;
     }
 
     @GetMapping("/rooms/popular")
-    public List<Room> popularRooms() {
-        return roomRepository.findAll().stream()
-                .sorted(Comparator.comparingLong(Room::getTimesBooked).reversed())
-                .toList();
+    public List<RoomResponse> popularRooms(@RequestParam(defaultValue = "10") int limit,
+                                           @RequestParam(required = false) Long hotelId,
+                                           @RequestParam(required = false) String city) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        return leaderboard.top(Math.min(limit, MAX_LIMIT), hotelId, city);
     }
 }
-
-
@@ -0,0 +1,56 @@
+package com.example.hotel;
+
+import com.example.hotel.exception.RoomUnavailableException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Starts calls on a thread pool all at once and collects their outcomes: the results of the calls
+ * that went through, and how many were turned down with {@link RoomUnavailableException}. Any
+ * other failure fails the test.
+ */
+final class ConcurrentCalls {
+
+    record Outcome<T>(List<T> granted, int rejected) {}
+
+    private ConcurrentCalls() {}
+
+    static <T> Outcome<T> race(int threads, List<Callable<T>> calls) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch startGate = new CountDownLatch(1);
+            AtomicInteger rejected = new AtomicInteger();
+            List<Future<T>> futures = new ArrayList<>(calls.size());
+            for (Callable<T> call : calls) {
+                futures.add(pool.submit(() -> {
+                    startGate.await();
+                    try {
+                        return call.call();
+                    } catch (RoomUnavailableException e) {
+                        rejected.incrementAndGet();
+                        return null;
+                    }
+                }));
+            }
+            startGate.countDown();
+            List<T> granted = new ArrayList<>();
+            for (Future<T> future : futures) {
+                T result = future.get(60, TimeUnit.SECONDS);
+                if (result != null) {
+                    granted.add(result);
+                }
+            }
+            return new Outcome<>(granted, rejected.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
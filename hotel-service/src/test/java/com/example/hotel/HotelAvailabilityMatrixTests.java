@@ -0,0 +1,50 @@
+package com.example.hotel;
+
+import com.example.hotel.dto.AvailabilityMatrix;
+import com.example.hotel.dto.HotelRequest;
+import com.example.hotel.dto.RoomActionRequest;
+import com.example.hotel.dto.RoomHoldRequest;
+import com.example.hotel.dto.RoomOccupancy;
+import com.example.hotel.dto.RoomRequest;
+import com.example.hotel.service.HotelService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+
+@SpringBootTest
+public class HotelAvailabilityMatrixTests {
+
+    @Autowired
+    private HotelService hotelService;
+
+    @Test
+    void matrixEncodesOccupiedNightsAsClippedRuns() {
+        Long hotelId = hotelService.createHotel(new HotelRequest("Matrix", "Grid City", "Main street 5")).getId();
+        Long busyId = hotelService.createRoom(new RoomRequest("M-1", 2, true, hotelId)).getId();
+        Long freeId = hotelService.createRoom(new RoomRequest("M-2", 2, true, hotelId)).getId();
+
+        LocalDate from = LocalDate.now().plusDays(150);
+        // Starts before the range and is clipped; the next stay checks in on its check-out day
+        hotelService.holdRoom(new RoomHoldRequest("matrix-1", from.minusDays(1), from.plusDays(2)), busyId);
+        hotelService.holdRoom(new RoomHoldRequest("matrix-2", from.plusDays(2), from.plusDays(4)), busyId);
+        hotelService.holdRoom(new RoomHoldRequest("matrix-3", from.plusDays(6), from.plusDays(8)), busyId);
+        hotelService.releaseHold(new RoomActionRequest("matrix-3"));
+        hotelService.holdRoom(new RoomHoldRequest("matrix-4", from.plusDays(9), from.plusDays(20)), busyId);
+
+        AvailabilityMatrix matrix = hotelService.availabilityMatrix(hotelId, from, from.plusDays(10));
+
+        Assertions.assertEquals(10, matrix.getNights());
+        Assertions.assertEquals(2, matrix.getRooms().size());
+        RoomOccupancy busy = matrix.getRooms().get(0);
+        Assertions.assertEquals(busyId, busy.getRoomId());
+        Assertions.assertEquals(2, busy.getOccupied().size());
+        Assertions.assertArrayEquals(new int[] {0, 4}, busy.getOccupied().get(0));
+        Assertions.assertArrayEquals(new int[] {9, 1}, busy.getOccupied().get(1));
+        RoomOccupancy free = matrix.getRooms().get(1);
+        Assertions.assertEquals(freeId, free.getRoomId());
+        Assertions.assertTrue(free.getOccupied().isEmpty());
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.hotel;
+
+import com.example.hotel.dto.HotelRequest;
+import com.example.hotel.dto.RoomBatchHoldRequest;
+import com.example.hotel.dto.RoomBatchHoldResponse;
+import com.example.hotel.dto.RoomHoldRequest;
+import com.example.hotel.dto.RoomRequest;
+import com.example.hotel.repo.RoomReservationLockRepository;
+import com.example.hotel.service.HotelService;
+import com.example.hotel.service.RoomAvailabilityCalendar;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+@SpringBootTest
+public class HotelBatchHoldTests {
+
+    @Autowired
+    private HotelService hotelService;
+
+    @Autowired
+    private RoomReservationLockRepository lockRepository;
+
+    @Autowired
+    private RoomAvailabilityCalendar availabilityCalendar;
+
+    @Test
+    void batchHoldsEveryRoomAndReplaysAsExisting() {
+        List<Long> rooms = rooms("Batch", 3);
+        LocalDate start = LocalDate.now().plusDays(300);
+        RoomBatchHoldRequest request = batch(start, rooms, "batch-ok");
+
+        RoomBatchHoldResponse held = hotelService.holdRooms(request);
+        Assertions.assertTrue(held.isHeld());
+        Assertions.assertTrue(held.getResults().stream().allMatch(r -> r.getOutcome() == RoomBatchHoldResponse.Outcome.HELD));
+        Assertions.assertTrue(availabilityCalendar.freeRooms(rooms, start, start.plusDays(2)).isEmpty());
+
+        RoomBatchHoldResponse replay = hotelService.holdRooms(request);
+        Assertions.assertTrue(replay.isHeld());
+        Assertions.assertTrue(replay.getResults().stream().allMatch(r -> r.getOutcome() == RoomBatchHoldResponse.Outcome.EXISTING));
+    }
+
+    @Test
+    void oneTakenRoomRejectsTheWholeBatch() {
+        List<Long> rooms = rooms("Batch conflict", 3);
+        LocalDate start = LocalDate.now().plusDays(300);
+        hotelService.holdRoom(new RoomHoldRequest("batch-taken", start.plusDays(1), start.plusDays(3)), rooms.get(1));
+
+        RoomBatchHoldResponse response = hotelService.holdRooms(batch(start, rooms, "batch-conflict"));
+
+        Assertions.assertFalse(response.isHeld());
+        Assertions.assertEquals(List.of(RoomBatchHoldResponse.Outcome.AVAILABLE, RoomBatchHoldResponse.Outcome.UNAVAILABLE,
+                        RoomBatchHoldResponse.Outcome.AVAILABLE),
+                response.getResults().stream().map(RoomBatchHoldResponse.Result::getOutcome).toList());
+        Assertions.assertTrue(lockRepository.findByRequestId("batch-conflict-0").isEmpty());
+        Assertions.assertEquals(List.of(rooms.get(0), rooms.get(2)),
+                availabilityCalendar.freeRooms(rooms, start, start.plusDays(2)));
+    }
+
+    @Test
+    void duplicateAndUnknownRoomsAreReportedPerItem() {
+        List<Long> rooms = rooms("Batch items", 1);
+        LocalDate start = LocalDate.now().plusDays(300);
+        RoomBatchHoldRequest request = new RoomBatchHoldRequest(start, start.plusDays(2), List.of(
+                new RoomBatchHoldRequest.Item(rooms.get(0), "batch-dup-0"),
+                new RoomBatchHoldRequest.Item(rooms.get(0), "batch-dup-1"),
+                new RoomBatchHoldRequest.Item(Long.MAX_VALUE, "batch-dup-2")));
+
+        RoomBatchHoldResponse response = hotelService.holdRooms(request);
+
+        Assertions.assertFalse(response.isHeld());
+        Assertions.assertEquals(List.of(RoomBatchHoldResponse.Outcome.AVAILABLE, RoomBatchHoldResponse.Outcome.DUPLICATE_ROOM,
+                        RoomBatchHoldResponse.Outcome.NOT_FOUND),
+                response.getResults().stream().map(RoomBatchHoldResponse.Result::getOutcome).toList());
+    }
+
+    @Test
+    void failedInsertRollsBackTheInMemoryHoldsOfTheWholeBatch() {
+        List<Long> rooms = rooms("Batch rollback", 2);
+        LocalDate start = LocalDate.now().plusDays(300);
+        // Passes the in-memory checks, then fails on insert: longer than the requestId column
+        RoomBatchHoldRequest request = new RoomBatchHoldRequest(start, start.plusDays(2), List.of(
+                new RoomBatchHoldRequest.Item(rooms.get(0), "batch-rollback-0"),
+                new RoomBatchHoldRequest.Item(rooms.get(1), "x".repeat(300))));
+
+        Assertions.assertThrows(RuntimeException.class, () -> hotelService.holdRooms(request));
+
+        Assertions.assertTrue(lockRepository.findByRequestId("batch-rollback-0").isEmpty());
+        Assertions.assertEquals(rooms, availabilityCalendar.freeRooms(rooms, start, start.plusDays(2)));
+        Assertions.assertEquals("HELD", hotelService.holdRoom(
+                new RoomHoldRequest("batch-rollback-after", start, start.plusDays(2)), rooms.get(0)).getStatus());
+    }
+
+    private List<Long> rooms(String hotelName, int count) {
+        Long hotelId = hotelService.createHotel(new HotelRequest(hotelName, "Batch City", "Main street 7")).getId();
+        return IntStream.range(0, count)
+                .mapToObj(i -> hotelService.createRoom(new RoomRequest("B-" + i, 2, true, hotelId)).getId())
+                .toList();
+    }
+
+    private static RoomBatchHoldRequest batch(LocalDate start, List<Long> rooms, String prefix) {
+        return new RoomBatchHoldRequest(start, start.plusDays(2), IntStream.range(0, rooms.size())
+                .mapToObj(i -> new RoomBatchHoldRequest.Item(rooms.get(i), prefix + "-" + i))
+                .toList());
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.hotel;
+
+import com.example.hotel.dto.HotelRequest;
+import com.example.hotel.dto.RoomActionRequest;
+import com.example.hotel.dto.RoomHoldRequest;
+import com.example.hotel.dto.RoomRequest;
+import com.example.hotel.service.CatalogSnapshot;
+import com.example.hotel.service.HotelService;
+import com.example.hotel.service.RoomBookingCounters;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// The scheduled flush is pushed out of the way, so every flush here is the test's own
+@SpringBootTest(properties = "hotel.stats.flush-interval-ms=3600000")
+public class HotelBookingCountersTests {
+
+    @Autowired
+    private HotelService hotelService;
+
+    @Autowired
+    private RoomBookingCounters bookingCounters;
+
+    @Autowired
+    private CatalogSnapshot catalogSnapshot;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void flushWritesConfirmedBookingsToTheRoomRow() {
+        Long roomId = newRoom("K-1", "Main street 10");
+        LocalDate start = LocalDate.now().plusDays(230);
+        hotelService.holdRoom(new RoomHoldRequest("counted-booking", start, start.plusDays(2)), roomId);
+        hotelService.confirmHold(new RoomActionRequest("counted-booking"));
+        Assertions.assertEquals(1, bookingCounters.pending(roomId));
+        Assertions.assertEquals(0, timesBooked(roomId));
+
+        bookingCounters.flush();
+
+        Assertions.assertEquals(0, bookingCounters.pending(roomId));
+        Assertions.assertEquals(1, timesBooked(roomId));
+    }
+
+    @Test
+    void failedFlushKeepsTheDeltasForTheNextOne() {
+        Long roomId = newRoom("K-2", "Main street 11");
+        JdbcTemplate unavailable = new JdbcTemplate() {
+            @Override
+            public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+                throw new DataAccessResourceFailureException("Database unavailable");
+            }
+        };
+        RoomBookingCounters counters = new RoomBookingCounters(unavailable, catalogSnapshot);
+        counters.increment(roomId);
+        counters.increment(roomId);
+
+        counters.flush();
+        Assertions.assertEquals(2, counters.pending(roomId));
+        counters.increment(roomId);
+        counters.flush();
+        Assertions.assertEquals(3, counters.pending(roomId));
+        Assertions.assertEquals(0, timesBooked(roomId));
+    }
+
+    private Long newRoom(String number, String address) {
+        Long hotelId = hotelService.createHotel(new HotelRequest("Counters", "Count Town", address)).getId();
+        return hotelService.createRoom(new RoomRequest(number, 2, true, hotelId)).getId();
+    }
+
+    private long timesBooked(Long roomId) {
+        return jdbcTemplate.queryForObject("select times_booked from room where id = ?", Long.class, roomId);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.hotel;
+
+import com.example.hotel.dto.CatalogImportResult;
+import com.example.hotel.dto.CatalogImportSummary;
+import com.example.hotel.dto.HotelResponse;
+import com.example.hotel.service.CatalogImportService;
+import com.example.hotel.service.HotelService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+@SpringBootTest
+public class HotelCatalogImportTests {
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private HotelService hotelService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void consecutiveCsvRowsOfOneHotelAreGroupedAndQuotesAreHonoured() throws IOException {
+        List<CatalogImportResult> results = importCsv("""
+                name,city,address,number,capacity,available
+                "Grand, ""Old"" Hotel",Csv City,"Main street, 1",101,2,true
+                "Grand, ""Old"" Hotel",Csv City,"Main street, 1",102,3,FALSE
+                Lone Hotel,Csv City,Side street 2,,,
+                """);
+
+        Assertions.assertEquals(List.of(CatalogImportResult.Status.CREATED, CatalogImportResult.Status.CREATED),
+                results.stream().map(CatalogImportResult::getStatus).toList());
+        Assertions.assertEquals(List.of(2L, 4L), results.stream().map(CatalogImportResult::getLine).toList());
+        Assertions.assertEquals(List.of(2, 0), results.stream().map(CatalogImportResult::getRooms).toList());
+
+        HotelResponse grand = hotelService.getHotel(results.get(0).getHotelId());
+        Assertions.assertEquals("Grand, \"Old\" Hotel", grand.getName());
+        Assertions.assertEquals("Main street, 1", grand.getAddress());
+        Assertions.assertEquals(2, grand.getRoomCount());
+    }
+
+    @Test
+    void badCsvRowsAreRejectedOnTheirOwn() throws IOException {
+        List<CatalogImportResult> results = importCsv("""
+                name,city,address,number,capacity,available
+                Row Hotel,Csv City,Row street 1,1,two,true
+                Yes Hotel,Csv City,Yes street 2,1,2,yes
+                Short Hotel,Csv City
+                Fine Hotel,Csv City,Fine street 4,1,2,
+                """);
+
+        Assertions.assertEquals(List.of(CatalogImportResult.Status.INVALID, CatalogImportResult.Status.INVALID,
+                        CatalogImportResult.Status.INVALID, CatalogImportResult.Status.CREATED),
+                results.stream().map(CatalogImportResult::getStatus).toList());
+        Assertions.assertTrue(results.get(0).getErrors().containsKey("rooms[0].capacity"));
+        Assertions.assertTrue(results.get(1).getErrors().containsKey("rooms[0].available"));
+        Assertions.assertTrue(results.get(2).getErrors().containsKey("line"));
+    }
+
+    @Test
+    void wrongCsvHeaderIsRejectedBeforeAnyRow() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> importCsv("name,city,number,address,capacity,available\nA,B,C,D,1,true\n"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> importCsv(""));
+    }
+
+    @Test
+    void rowRejectedByTheDatabaseFailsAloneInsteadOfItsChunk() throws IOException {
+        jdbcTemplate.execute("alter table hotel add constraint ck_import_test check (name <> 'Poison Hotel')");
+        try {
+            List<CatalogImportResult> results = importCsv("""
+                    name,city,address,number,capacity,available
+                    Before Hotel,Csv City,Before street 1,1,2,true
+                    Poison Hotel,Csv City,Poison street 2,1,2,true
+                    After Hotel,Csv City,After street 3,1,2,true
+                    """);
+
+            Assertions.assertEquals(List.of(CatalogImportResult.Status.CREATED, CatalogImportResult.Status.FAILED,
+                            CatalogImportResult.Status.CREATED),
+                    results.stream().map(CatalogImportResult::getStatus).toList());
+            Assertions.assertEquals("After Hotel", hotelService.getHotel(results.get(2).getHotelId()).getName());
+        } finally {
+            jdbcTemplate.execute("alter table hotel drop constraint ck_import_test");
+        }
+    }
+
+    // Result lines, without the summary line at the end
+    private List<CatalogImportResult> importCsv(String csv) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CatalogImportSummary summary = catalogImportService.importCsv(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), out);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        List<CatalogImportResult> results = new ArrayList<>();
+        for (int i = 0; i < lines.length - 1; i++) {
+            results.add(objectMapper.readValue(lines[i], CatalogImportResult.class));
+        }
+        Assertions.assertEquals(summary.getRejected(),
+                results.stream().filter(result -> result.getStatus() != CatalogImportResult.Status.CREATED).count());
+        return results;
+    }
+}
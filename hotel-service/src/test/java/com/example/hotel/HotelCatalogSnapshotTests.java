@@ -0,0 +1,82 @@
+package com.example.hotel;
+
+import com.example.hotel.dto.HotelRequest;
+import com.example.hotel.service.CatalogSnapshot;
+import com.example.hotel.service.HotelService;
+import com.example.hotel.web.HotelController;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+
+@SpringBootTest(properties = "hotel.catalog.counter-refresh-ms=300")
+public class HotelCatalogSnapshotTests {
+
+    @Autowired
+    private HotelController hotelController;
+
+    @Autowired
+    private HotelService hotelService;
+
+    @Autowired
+    private CatalogSnapshot catalogSnapshot;
+
+    @Test
+    void matchingEtagIsAnsweredWithNotModified() {
+        hotelService.createHotel(new HotelRequest("Snapshot", "Etag City", "Street 1"));
+        ResponseEntity<byte[]> full = hotelController.list(null, null);
+        String etag = full.getHeaders().getETag();
+
+        Assertions.assertEquals(HttpStatus.OK, full.getStatusCode());
+        Assertions.assertNotNull(etag);
+        Assertions.assertTrue(new String(full.getBody()).contains("Etag City"));
+
+        ResponseEntity<byte[]> revalidated = hotelController.list(etag, null);
+        Assertions.assertEquals(HttpStatus.NOT_MODIFIED, revalidated.getStatusCode());
+        Assertions.assertNull(revalidated.getBody());
+        Assertions.assertEquals(etag, revalidated.getHeaders().getETag());
+
+        hotelService.createHotel(new HotelRequest("Snapshot 2", "Etag City", "Street 2"));
+        ResponseEntity<byte[]> changed = hotelController.list(etag, null);
+        Assertions.assertEquals(HttpStatus.OK, changed.getStatusCode());
+        Assertions.assertNotEquals(etag, changed.getHeaders().getETag());
+    }
+
+    @Test
+    void gzipVariantHasItsOwnEtagAndTheSameContent() throws IOException {
+        ResponseEntity<byte[]> plain = hotelController.list(null, null);
+        ResponseEntity<byte[]> gzip = hotelController.list(null, "gzip, deflate");
+
+        Assertions.assertEquals("gzip", gzip.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        Assertions.assertNull(plain.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        Assertions.assertNotEquals(plain.getHeaders().getETag(), gzip.getHeaders().getETag());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip.getBody()))) {
+            Assertions.assertArrayEquals(plain.getBody(), in.readAllBytes());
+        }
+
+        // A cached plain body does not satisfy a gzip request, and the other way round
+        Assertions.assertEquals(HttpStatus.OK, hotelController.list(plain.getHeaders().getETag(), "gzip").getStatusCode());
+        Assertions.assertEquals(HttpStatus.NOT_MODIFIED,
+                hotelController.list(gzip.getHeaders().getETag(), "gzip").getStatusCode());
+    }
+
+    @Test
+    void counterFlushesOnlyRefreshTheRoomListAndNotMoreOftenThanTheInterval() throws InterruptedException {
+        String hotels = catalogSnapshot.hotels().etag();
+        String rooms = catalogSnapshot.rooms().etag();
+
+        catalogSnapshot.countersChanged();
+        Assertions.assertEquals(rooms, catalogSnapshot.rooms().etag());
+
+        Thread.sleep(350);
+        Assertions.assertNotEquals(rooms, catalogSnapshot.rooms().etag());
+        Assertions.assertEquals(hotels, catalogSnapshot.hotels().etag());
+    }
+}
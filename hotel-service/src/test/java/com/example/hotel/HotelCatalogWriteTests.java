@@ -0,0 +1,220 @@
+package com.example.hotel;
+
+import com.example.hotel.dto.HotelRequest;
+import com.example.hotel.dto.RoomActionRequest;
+import com.example.hotel.dto.RoomBulkUpdateRequest;
+import com.example.hotel.dto.RoomHoldRequest;
+import com.example.hotel.dto.RoomRequest;
+import com.example.hotel.dto.RoomResponse;
+import com.example.hotel.exception.ResourceNotFoundException;
+import com.example.hotel.model.RoomWaitlistEntry;
+import com.example.hotel.repo.RoomRepository;
+import com.example.hotel.repo.RoomWaitlistRepository;
+import com.example.hotel.service.HotelService;
+import com.example.hotel.service.PopularRoomsLeaderboard;
+import com.example.hotel.service.ReservationLockStore;
+import com.example.hotel.service.RoomAvailabilityCalendar;
+import com.example.hotel.service.RoomBookingCounters;
+import com.example.hotel.service.RoomIntervalIndex;
+import com.example.hotel.service.RoomTypeInventory;
+import com.example.hotel.service.WaitlistService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@SpringBootTest
+public class HotelCatalogWriteTests {
+
+    @Autowired
+    private HotelService hotelService;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private RoomIntervalIndex intervalIndex;
+
+    @Autowired
+    private RoomAvailabilityCalendar availabilityCalendar;
+
+    @Autowired
+    private RoomTypeInventory roomTypeInventory;
+
+    @Autowired
+    private RoomBookingCounters bookingCounters;
+
+    @Autowired
+    private PopularRoomsLeaderboard leaderboard;
+
+    @Autowired
+    private ReservationLockStore lockStore;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private RoomWaitlistRepository waitlistRepository;
+
+    @Test
+    void deletingAHotelRemovesItsRoomsFromEveryInMemoryViewWithTheirLocksAndWaiters() {
+        Long hotelId = hotelService.createHotel(new HotelRequest("Doomed Hotel", "Delete City", "Last street 1")).getId();
+        RoomRequest typed = new RoomRequest("D-1", 2, true, hotelId);
+        typed.setRoomType("STANDARD");
+        Long bookedRoom = hotelService.createRoom(typed).getId();
+        Long heldRoom = hotelService.createRoom(new RoomRequest("D-2", 2, true, hotelId)).getId();
+
+        LocalDate start = LocalDate.now().plusDays(30);
+        hotelService.holdRoom(new RoomHoldRequest("delete-booked", start, start.plusDays(2)), bookedRoom);
+        hotelService.confirmHold(new RoomActionRequest("delete-booked"));
+        hotelService.holdRoom(new RoomHoldRequest("delete-held", start, start.plusDays(2)), heldRoom);
+        waitlistService.join(heldRoom, new RoomHoldRequest("delete-waiter", start, start.plusDays(2)));
+        Assertions.assertTrue(roomTypeInventory.exists(hotelId, "STANDARD"));
+        Assertions.assertEquals(2, leaderboard.top(10, hotelId, null).size());
+
+        hotelService.deleteHotel(hotelId);
+
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> hotelService.getHotel(hotelId));
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> hotelService.getRoom(bookedRoom));
+        Assertions.assertTrue(roomRepository.findAllById(List.of(bookedRoom, heldRoom)).isEmpty());
+        Assertions.assertTrue(lockStore.findByRequestIdIn(List.of("delete-booked", "delete-held")).isEmpty());
+        Assertions.assertEquals(RoomWaitlistEntry.Status.CANCELLED,
+                waitlistRepository.findByRequestId("delete-waiter").orElseThrow().getStatus());
+        Assertions.assertTrue(hotelService.searchHotels("doomed", 10).isEmpty());
+        Assertions.assertNull(intervalIndex.roomOf("delete-booked"));
+        Assertions.assertNull(intervalIndex.roomOf("delete-held"));
+        Assertions.assertEquals(List.of(bookedRoom, heldRoom),
+                availabilityCalendar.freeRooms(List.of(bookedRoom, heldRoom), start, start.plusDays(2)));
+        Assertions.assertFalse(roomTypeInventory.exists(hotelId, "STANDARD"));
+        Assertions.assertEquals(0, bookingCounters.pending(bookedRoom));
+        Assertions.assertTrue(leaderboard.top(10, hotelId, null).isEmpty());
+        Assertions.assertTrue(leaderboard.top(1000, null, "Delete City").isEmpty());
+    }
+
+    @Test
+    void deletingAnUnknownHotelIsNotFound() {
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> hotelService.deleteHotel(Long.MAX_VALUE));
+    }
+
+    @Test
+    void bulkUpdatePatchesOnlyMatchingRoomsAndRefreshesTheRanking() {
+        Long hotelId = hotelService.createHotel(new HotelRequest("Bulk Hotel", "Bulk City", "Bulk street 1")).getId();
+        Long small = hotelService.createRoom(new RoomRequest("U-1", 2, true, hotelId)).getId();
+        Long closed = hotelService.createRoom(new RoomRequest("U-2", 2, false, hotelId)).getId();
+        Long large = hotelService.createRoom(new RoomRequest("U-3", 4, true, hotelId)).getId();
+        Long otherHotel = hotelService.createRoom(new RoomRequest("U-4", 2, true,
+                hotelService.createHotel(new HotelRequest("Other Bulk", "Bulk City", "Bulk street 2")).getId())).getId();
+        hotelService.getRoom(small); // cached before the update
+
+        RoomBulkUpdateRequest request = new RoomBulkUpdateRequest();
+        request.setHotelId(hotelId);
+        request.setMaxCapacity(2);
+        request.setCurrentlyAvailable(true);
+        request.setAvailable(false);
+        request.setCapacity(3);
+        Assertions.assertEquals(1, hotelService.bulkUpdateRooms(request).getUpdated());
+
+        RoomResponse patched = hotelService.getRoom(small);
+        Assertions.assertFalse(patched.isAvailable());
+        Assertions.assertEquals(3, patched.getCapacity());
+        Assertions.assertEquals(2, hotelService.getRoom(closed).getCapacity());
+        Assertions.assertTrue(hotelService.getRoom(large).isAvailable());
+        Assertions.assertTrue(hotelService.getRoom(otherHotel).isAvailable());
+
+        Map<Long, RoomResponse> ranked = leaderboard.top(10, hotelId, null).stream()
+                .collect(Collectors.toMap(RoomResponse::getId, Function.identity()));
+        Assertions.assertFalse(ranked.get(small).isAvailable());
+        Assertions.assertEquals(3, ranked.get(small).getCapacity());
+        Assertions.assertEquals(2, ranked.get(closed).getCapacity());
+        Assertions.assertTrue(ranked.get(large).isAvailable());
+    }
+
+    @Test
+    void onlyAvailableRoomsAreUnitsOfTheirType() {
+        Long hotelId = hotelService.createHotel(new HotelRequest("Typed Hotel", "Typed City", "Typed street 1")).getId();
+        Long open = hotelService.createRoom(typedRoom("T-1", true, hotelId)).getId();
+        Long closed = hotelService.createRoom(typedRoom("T-2", false, hotelId)).getId();
+        LocalDate start = LocalDate.now().plusDays(40);
+        Assertions.assertEquals(List.of(open), roomTypeInventory.rooms(hotelId, "SUITE"));
+        Assertions.assertEquals(1, roomTypeInventory.available(hotelId, "SUITE", start, start.plusDays(1)));
+
+        hotelService.updateRoom(open, typedRoom("T-1", false, hotelId));
+        Assertions.assertFalse(roomTypeInventory.exists(hotelId, "SUITE"));
+
+        RoomBulkUpdateRequest reopen = new RoomBulkUpdateRequest();
+        reopen.setHotelId(hotelId);
+        reopen.setAvailable(true);
+        hotelService.bulkUpdateRooms(reopen);
+        Assertions.assertEquals(2, roomTypeInventory.available(hotelId, "SUITE", start, start.plusDays(1)));
+        Set<Long> held = Set.of(
+                hotelService.holdRoomOfType(hotelId, "SUITE", new RoomHoldRequest("suite-reopened-1", start, start.plusDays(1))).getRoomId(),
+                hotelService.holdRoomOfType(hotelId, "SUITE", new RoomHoldRequest("suite-reopened-2", start, start.plusDays(1))).getRoomId());
+        Assertions.assertEquals(Set.of(open, closed), held);
+
+        RoomBulkUpdateRequest close = new RoomBulkUpdateRequest();
+        close.setHotelId(hotelId);
+        close.setAvailable(false);
+        hotelService.bulkUpdateRooms(close);
+        Assertions.assertFalse(roomTypeInventory.exists(hotelId, "SUITE"));
+    }
+
+    @Test
+    void rankingCarriesTheRoomType() {
+        Long hotelId = hotelService.createHotel(new HotelRequest("Ranked Types", "Typed City", "Typed street 2")).getId();
+        Long roomId = hotelService.createRoom(typedRoom("R-1", true, hotelId)).getId();
+        Assertions.assertEquals("SUITE", leaderboard.top(10, hotelId, null).get(0).getRoomType());
+
+        LocalDate start = LocalDate.now().plusDays(45);
+        hotelService.holdRoom(new RoomHoldRequest("ranked-type", start, start.plusDays(1)), roomId);
+        hotelService.confirmHold(new RoomActionRequest("ranked-type"));
+        RoomBulkUpdateRequest request = new RoomBulkUpdateRequest();
+        request.setHotelId(hotelId);
+        request.setCapacity(3);
+        hotelService.bulkUpdateRooms(request);
+        hotelService.updateHotel(hotelId, new HotelRequest("Ranked Types 2", "Typed City", "Typed street 2"));
+
+        RoomResponse ranked = leaderboard.top(10, hotelId, null).get(0);
+        Assertions.assertEquals("SUITE", ranked.getRoomType());
+        Assertions.assertEquals(3, ranked.getCapacity());
+        Assertions.assertEquals("Ranked Types 2", ranked.getHotelName());
+    }
+
+    @Test
+    void bulkUpdateWithoutAHotelFilterSpansHotels() {
+        Long hotelId = hotelService.createHotel(new HotelRequest("Chunked Bulk", "Bulk City", "Bulk street 3")).getId();
+        List<Long> rooms = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            rooms.add(hotelService.createRoom(new RoomRequest("C-" + i, 5, true, hotelId)).getId());
+        }
+        long total = roomRepository.count();
+
+        RoomBulkUpdateRequest request = new RoomBulkUpdateRequest();
+        request.setCapacity(6);
+        request.setMinCapacity(5);
+        request.setMaxCapacity(5);
+        int updated = hotelService.bulkUpdateRooms(request).getUpdated();
+
+        Assertions.assertTrue(updated >= rooms.size() && updated <= total);
+        rooms.forEach(roomId -> Assertions.assertEquals(6, hotelService.getRoom(roomId).getCapacity()));
+    }
+
+    @Test
+    void bulkUpdateNeedsSomethingToSet() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> hotelService.bulkUpdateRooms(new RoomBulkUpdateRequest()));
+    }
+
+    private static RoomRequest typedRoom(String number, boolean available, Long hotelId) {
+        RoomRequest request = new RoomRequest(number, 2, available, hotelId);
+        request.setRoomType("SUITE");
+        return request;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.hotel;
+
+import com.example.hotel.dto.HotelRequest;
+import com.example.hotel.dto.RoomHoldRequest;
+import com.example.hotel.dto.RoomLockResponse;
+import com.example.hotel.dto.RoomRequest;
+import com.example.hotel.model.RoomReservationLock;
+import com.example.hotel.repo.RoomReservationLockRepository;
+import com.example.hotel.service.HotelService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@SpringBootTest
+public class HotelConcurrencyTests {
+    private static final int ROOMS = 8;
+    private static final int HOLDS = 2000;
+    private static final int DUPLICATES = 200;
+    private static final int TYPED_ROOMS = 5;
+    private static final int TYPED_HOLDS = 100;
+
+    @Autowired
+    private HotelService hotelService;
+
+    @Autowired
+    private RoomReservationLockRepository lockRepository;
+
+    @Test
+    void parallelHoldsForSameDatesGrantExactlyOneHoldPerRoom() throws Exception {
+        Long hotelId = hotelService.createHotel(new HotelRequest("Contention", "Contention City", "Main street 1")).getId();
+        List<Long> roomIds = new ArrayList<>();
+        for (int i = 0; i < ROOMS; i++) {
+            roomIds.add(hotelService.createRoom(new RoomRequest("C-" + i, 2, true, hotelId)).getId());
+        }
+
+        LocalDate start = LocalDate.now().plusDays(40);
+        LocalDate end = start.plusDays(3);
+        List<Callable<RoomLockResponse>> holds = new ArrayList<>();
+        for (int i = 0; i < HOLDS; i++) {
+            Long roomId = roomIds.get(i % ROOMS);
+            RoomHoldRequest request = new RoomHoldRequest("contention-" + roomId + "-" + i, start, end);
+            holds.add(() -> hotelService.holdRoom(request, roomId));
+        }
+        ConcurrentCalls.Outcome<RoomLockResponse> outcome = ConcurrentCalls.race(32, holds);
+
+        Assertions.assertEquals(ROOMS, outcome.granted().size());
+        Assertions.assertEquals(HOLDS - ROOMS, outcome.rejected());
+        List<RoomReservationLock> held = lockRepository.findByStatusIn(List.of(RoomReservationLock.Status.HELD));
+        for (Long roomId : roomIds) {
+            Assertions.assertEquals(1, held.stream().filter(lock -> lock.getRoomId().equals(roomId)).count());
+        }
+    }
+
+    @Test
+    void concurrentDuplicateHoldsShareOneLock() throws Exception {
+        Long hotelId = hotelService.createHotel(new HotelRequest("Retries", "Retry City", "Main street 2")).getId();
+        // Retries aimed at different rooms are not serialized by the room stripe, only by the requestId
+        List<Long> roomIds = List.of(
+                hotelService.createRoom(new RoomRequest("R-1", 2, true, hotelId)).getId(),
+                hotelService.createRoom(new RoomRequest("R-2", 2, true, hotelId)).getId());
+
+        LocalDate start = LocalDate.now().plusDays(50);
+        RoomHoldRequest request = new RoomHoldRequest("duplicate-hold", start, start.plusDays(2));
+        AtomicInteger turnedAway = new AtomicInteger();
+        List<Callable<RoomLockResponse>> retries = new ArrayList<>();
+        for (int i = 0; i < DUPLICATES; i++) {
+            Long roomId = roomIds.get(i % roomIds.size());
+            retries.add(() -> {
+                try {
+                    return hotelService.holdRoom(request, roomId);
+                } catch (IllegalStateException e) {
+                    // Arrived while the hold for the other room was in flight: not a retry of it
+                    turnedAway.incrementAndGet();
+                    return null;
+                }
+            });
+        }
+        ConcurrentCalls.Outcome<RoomLockResponse> outcome = ConcurrentCalls.race(16, retries);
+
+        Assertions.assertEquals(0, outcome.rejected());
+        Assertions.assertEquals(DUPLICATES, outcome.granted().size() + turnedAway.get());
+        Assertions.assertEquals(1, outcome.granted().stream().map(RoomLockResponse::getId).distinct().count());
+        Assertions.assertEquals(1, outcome.granted().stream().map(RoomLockResponse::getRoomId).distinct().count());
+        Assertions.assertTrue(lockRepository.findByRequestId("duplicate-hold").isPresent());
+    }
+
+    @Test
+    void parallelHoldsByTypeTakeEveryRoomOfTheTypeOnce() throws Exception {
+        Long hotelId = hotelService.createHotel(new HotelRequest("Typed", "Type City", "Main street 4")).getId();
+        Set<Long> typedRooms = new HashSet<>();
+        for (int i = 0; i < TYPED_ROOMS; i++) {
+            RoomRequest room = new RoomRequest("T-" + i, 2, true, hotelId);
+            room.setRoomType("STANDARD");
+            typedRooms.add(hotelService.createRoom(room).getId());
+        }
+        hotelService.createRoom(new RoomRequest("T-other", 2, true, hotelId));
+
+        LocalDate start = LocalDate.now().plusDays(60);
+        LocalDate end = start.plusDays(2);
+        Assertions.assertEquals(TYPED_ROOMS,
+                hotelService.roomTypeAvailability(hotelId, start, end).get(0).getAvailable());
+        List<Callable<RoomLockResponse>> holds = new ArrayList<>();
+        for (int i = 0; i < TYPED_HOLDS; i++) {
+            RoomHoldRequest request = new RoomHoldRequest("typed-" + i, start, end);
+            holds.add(() -> hotelService.holdRoomOfType(hotelId, "STANDARD", request));
+        }
+        ConcurrentCalls.Outcome<RoomLockResponse> outcome = ConcurrentCalls.race(16, holds);
+        Set<Long> heldRooms = new HashSet<>();
+        outcome.granted().forEach(lock -> Assertions.assertTrue(heldRooms.add(lock.getRoomId())));
+
+        Assertions.assertEquals(typedRooms, heldRooms);
+        Assertions.assertEquals(TYPED_HOLDS - TYPED_ROOMS, outcome.rejected());
+        Assertions.assertEquals(0, hotelService.roomTypeAvailability(hotelId, start, end).get(0).getAvailable());
+        Assertions.assertEquals(TYPED_ROOMS,
+                hotelService.roomTypeAvailability(hotelId, end, end.plusDays(1)).get(0).getAvailable());
+    }
+}
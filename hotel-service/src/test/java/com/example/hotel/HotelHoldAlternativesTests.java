@@ -0,0 +1,95 @@
+package com.example.hotel;
+
+import com.example.hotel.dto.HotelRequest;
+import com.example.hotel.dto.RoomAlternative;
+import com.example.hotel.dto.RoomHoldRequest;
+import com.example.hotel.dto.RoomRequest;
+import com.example.hotel.exception.RoomUnavailableException;
+import com.example.hotel.repo.RoomRepository;
+import com.example.hotel.service.HoldAlternatives;
+import com.example.hotel.service.HotelService;
+import com.example.hotel.service.RoomAvailabilityCalendar;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// A generous budget: the first search in a fresh context also pays for warming up the queries
+@SpringBootTest(properties = "hotel.holds.alternatives.budget-ms=5000")
+public class HotelHoldAlternativesTests {
+
+    @Autowired
+    private HotelService hotelService;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private RoomAvailabilityCalendar availabilityCalendar;
+
+    @Test
+    void searchCutShortCountsOnceAgainstTheBudget() {
+        Long hotelId = hotelService.createHotel(new HotelRequest("Alternatives 3", "Alt City", "Main street 9")).getId();
+        Long roomId = hotelService.createRoom(new RoomRequest("C-1", 2, true, hotelId)).getId();
+        hotelService.createRoom(new RoomRequest("C-2", 2, true, hotelId));
+        MeterRegistry registry = new SimpleMeterRegistry();
+        HoldAlternatives noTime = new HoldAlternatives(roomRepository, availabilityCalendar, registry, 0, 3, 7);
+
+        LocalDate start = LocalDate.now().plusDays(160);
+        Assertions.assertTrue(noTime.find(roomId, start, start.plusDays(2)).isEmpty());
+        Assertions.assertEquals(1.0, registry.counter("hotel.holds.alternatives.budget.exhausted").count());
+    }
+
+    @Test
+    void conflictingHoldSuggestsShiftedDatesAndSimilarRooms() {
+        Long hotelId = hotelService.createHotel(new HotelRequest("Alternatives", "Alt City", "Main street 4")).getId();
+        Long roomId = hotelService.createRoom(new RoomRequest("A-1", 2, true, hotelId)).getId();
+        Long sameCapacityId = hotelService.createRoom(new RoomRequest("A-2", 2, true, hotelId)).getId();
+        hotelService.createRoom(new RoomRequest("A-3", 4, true, hotelId));
+
+        LocalDate start = LocalDate.now().plusDays(120);
+        LocalDate end = start.plusDays(2);
+        hotelService.holdRoom(new RoomHoldRequest("alt-first", start, end), roomId);
+
+        RoomUnavailableException conflict = Assertions.assertThrows(RoomUnavailableException.class,
+                () -> hotelService.holdRoom(new RoomHoldRequest("alt-second", start, end), roomId));
+        List<RoomAlternative> alternatives = conflict.getAlternatives();
+
+        // Shifts by one day still overlap the held nights, shifts by two do not; the kinds alternate
+        Assertions.assertEquals(3, alternatives.size());
+        Assertions.assertEquals(RoomAlternative.Kind.SHIFTED_DATES, alternatives.get(0).getKind());
+        Assertions.assertEquals(roomId, alternatives.get(0).getRoomId());
+        Assertions.assertEquals(start.plusDays(2), alternatives.get(0).getStartDate());
+        Assertions.assertEquals(RoomAlternative.Kind.OTHER_ROOM, alternatives.get(1).getKind());
+        Assertions.assertEquals(sameCapacityId, alternatives.get(1).getRoomId());
+        Assertions.assertEquals(start, alternatives.get(1).getStartDate());
+        Assertions.assertEquals(RoomAlternative.Kind.SHIFTED_DATES, alternatives.get(2).getKind());
+        Assertions.assertEquals(start.minusDays(2), alternatives.get(2).getStartDate());
+    }
+
+    @Test
+    void freeDatesDoNotCrowdOutOtherRooms() {
+        Long hotelId = hotelService.createHotel(new HotelRequest("Alternatives 2", "Alt City", "Main street 5")).getId();
+        Long roomId = hotelService.createRoom(new RoomRequest("B-1", 2, true, hotelId)).getId();
+        Long second = hotelService.createRoom(new RoomRequest("B-2", 2, true, hotelId)).getId();
+        hotelService.createRoom(new RoomRequest("B-3", 2, true, hotelId));
+
+        // A one-night hold leaves every shifted stay free
+        LocalDate start = LocalDate.now().plusDays(150);
+        hotelService.holdRoom(new RoomHoldRequest("alt-night", start, start.plusDays(1)), roomId);
+
+        RoomUnavailableException conflict = Assertions.assertThrows(RoomUnavailableException.class,
+                () -> hotelService.holdRoom(new RoomHoldRequest("alt-night-2", start, start.plusDays(1)), roomId));
+        List<RoomAlternative> alternatives = conflict.getAlternatives();
+
+        Assertions.assertEquals(List.of(roomId, second, roomId),
+                alternatives.stream().map(RoomAlternative::getRoomId).toList());
+        Assertions.assertEquals(start.plusDays(1), alternatives.get(0).getStartDate());
+        Assertions.assertEquals(start.minusDays(1), alternatives.get(2).getStartDate());
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.hotel;
+
+import com.example.hotel.dto.HotelRequest;
+import com.example.hotel.dto.RoomBatchHoldRequest;
+import com.example.hotel.dto.RoomHoldRequest;
+import com.example.hotel.dto.RoomRequest;
+import com.example.hotel.model.Room;
+import com.example.hotel.service.HotelService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Inserts the same rows once with JDBC batching switched off for the session and once with the
+ * configured batch size, and compares statements and throughput. Each run is rolled back.
+ * Group holds are measured end to end through the service against the same holds placed one by one.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+public class HotelInsertBenchmarkTests {
+    private static final Logger log = LoggerFactory.getLogger(HotelInsertBenchmarkTests.class);
+    private static final int ROWS = 2000;
+    private static final int GROUP = 100;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private HotelService hotelService;
+
+    @Test
+    void bulkRoomCreationIsBatched() {
+        IntConsumer insertRoom = i -> {
+            Room room = new Room();
+            room.setNumber("B-" + i);
+            room.setCapacity(2);
+            entityManager.persist(room);
+        };
+        compare("rooms", insertRoom);
+    }
+
+    @Test
+    void groupHoldIsWrittenInAFewStatements() {
+        Long hotelId = hotelService.createHotel(new HotelRequest("Benchmark", "Bench City", "Street 1")).getId();
+        List<Long> rooms = IntStream.range(0, GROUP)
+                .mapToObj(i -> hotelService.createRoom(new RoomRequest("G-" + i, 2, true, hotelId)).getId())
+                .toList();
+        LocalDate start = LocalDate.now().plusDays(60);
+
+        Result single = timed(GROUP, () -> {
+            for (int i = 0; i < GROUP; i++) {
+                hotelService.holdRoom(new RoomHoldRequest("single-" + i, start, start.plusDays(1)), rooms.get(i));
+            }
+        });
+        Result group = timed(GROUP, () -> Assertions.assertTrue(hotelService.holdRooms(new RoomBatchHoldRequest(
+                start.plusDays(2), start.plusDays(3), IntStream.range(0, GROUP)
+                        .mapToObj(i -> new RoomBatchHoldRequest.Item(rooms.get(i), "group-" + i))
+                        .toList())).isHeld()));
+        log.info("holds: {} rooms, one by one {} statements {} rows/s, as a group {} statements {} rows/s",
+                GROUP, single.statements(), Math.round(single.rowsPerSecond()),
+                group.statements(), Math.round(group.rowsPerSecond()));
+        Assertions.assertTrue(single.statements() >= GROUP);
+        Assertions.assertTrue(group.statements() * 10 < single.statements());
+    }
+
+    private void compare(String label, IntConsumer insert) {
+        measure(1, insert); // warm-up
+        Result unbatched = measure(1, insert);
+        Result batched = measure(null, insert);
+        log.info("{}: {} rows, unbatched {} statements {} rows/s, batched {} statements {} rows/s",
+                label, ROWS, unbatched.statements(), Math.round(unbatched.rowsPerSecond()),
+                batched.statements(), Math.round(batched.rowsPerSecond()));
+        Assertions.assertTrue(unbatched.statements() >= ROWS);
+        Assertions.assertTrue(batched.statements() * 10 < unbatched.statements());
+    }
+
+    private Result measure(Integer batchSize, IntConsumer insert) {
+        return timed(ROWS, () -> transactionTemplate.executeWithoutResult(status -> {
+            if (batchSize != null) {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            }
+            for (int i = 0; i < ROWS; i++) {
+                insert.accept(i);
+            }
+            entityManager.flush();
+            status.setRollbackOnly(); // the rows are only needed for the timing
+        }));
+    }
+
+    private Result timed(int rows, Runnable work) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long started = System.nanoTime();
+        work.run();
+        long elapsed = System.nanoTime() - started;
+        return new Result(statistics.getPrepareStatementCount(), rows * 1_000_000_000.0 / elapsed);
+    }
+
+    private record Result(long statements, double rowsPerSecond) {}
+}
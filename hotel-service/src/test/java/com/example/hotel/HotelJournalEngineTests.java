@@ -0,0 +1,148 @@
+package com.example.hotel;
+
+import com.example.hotel.dto.HotelRequest;
+import com.example.hotel.dto.RoomActionRequest;
+import com.example.hotel.dto.RoomHoldRequest;
+import com.example.hotel.dto.RoomLockResponse;
+import com.example.hotel.dto.RoomRequest;
+import com.example.hotel.exception.RoomUnavailableException;
+import com.example.hotel.model.RoomReservationLock;
+import com.example.hotel.service.HotelService;
+import com.example.hotel.service.LockArchivalJob;
+import com.example.hotel.service.ReservationJournal;
+import com.example.hotel.service.ReservationLockStore;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@SpringBootTest(properties = "hotel.engine.mode=journal")
+public class HotelJournalEngineTests {
+    @TempDir
+    static Path engineDir;
+
+    @DynamicPropertySource
+    static void journalDir(DynamicPropertyRegistry registry) {
+        registry.add("hotel.engine.journal.dir", () -> engineDir.resolve("journal").toString());
+    }
+
+    @Autowired
+    private HotelService hotelService;
+
+    @Autowired
+    private ReservationLockStore lockStore;
+
+    @Autowired
+    private LockArchivalJob lockArchivalJob;
+
+    @Test
+    void holdFlowRunsOnTheJournalEngine() {
+        Long hotelId = hotelService.createHotel(new HotelRequest("Journal", "Journal City", "Main street 1")).getId();
+        Long roomId = hotelService.createRoom(new RoomRequest("J-1", 2, true, hotelId)).getId();
+        LocalDate start = LocalDate.now().plusDays(70);
+
+        RoomLockResponse held = hotelService.holdRoom(new RoomHoldRequest("journal-1", start, start.plusDays(2)), roomId);
+        Assertions.assertEquals(held.getId(), hotelService.holdRoom(new RoomHoldRequest("journal-1", start, start.plusDays(2)), roomId).getId());
+        Assertions.assertThrows(RoomUnavailableException.class,
+                () -> hotelService.holdRoom(new RoomHoldRequest("journal-2", start.plusDays(1), start.plusDays(3)), roomId));
+
+        hotelService.confirmHold(new RoomActionRequest("journal-1"));
+        Assertions.assertEquals(RoomReservationLock.Status.CONFIRMED,
+                lockStore.findByRequestId("journal-1").orElseThrow().getStatus());
+        Assertions.assertTrue(lockStore.findByRequestId("journal-2").isEmpty());
+    }
+
+    @Test
+    void deletingAHotelTombstonesTheLocksOfItsRooms() {
+        Long hotelId = hotelService.createHotel(new HotelRequest("Journal Gone", "Journal City", "Main street 2")).getId();
+        Long roomId = hotelService.createRoom(new RoomRequest("J-2", 2, true, hotelId)).getId();
+        LocalDate start = LocalDate.now().plusDays(75);
+        hotelService.holdRoom(new RoomHoldRequest("journal-deleted", start, start.plusDays(2)), roomId);
+
+        hotelService.deleteHotel(hotelId);
+
+        Assertions.assertTrue(lockStore.findByRequestId("journal-deleted").isEmpty());
+        Assertions.assertTrue(lockStore.findByStatusIn(List.of(RoomReservationLock.Status.HELD)).stream()
+                .noneMatch(lock -> roomId.equals(lock.getRoomId())));
+    }
+
+    @Test
+    void archivalCompactsFinishedLocksOutOfTheJournal() {
+        LocalDate today = LocalDate.now();
+        RoomReservationLock pastStay = lock(0, RoomReservationLock.Status.CONFIRMED);
+        pastStay.setId(null);
+        pastStay.setRequestId("journal-past-stay");
+        pastStay.setStartDate(today.minusDays(5));
+        pastStay.setEndDate(today.minusDays(3));
+        lockStore.save(pastStay);
+        RoomReservationLock oldRelease = lock(0, RoomReservationLock.Status.RELEASED);
+        oldRelease.setId(null);
+        oldRelease.setRequestId("journal-old-release");
+        oldRelease.setExpiresAt(Instant.now().minusSeconds(7200));
+        lockStore.save(oldRelease);
+        RoomReservationLock recentRelease = lock(0, RoomReservationLock.Status.RELEASED);
+        recentRelease.setId(null);
+        recentRelease.setRequestId("journal-recent-release");
+        recentRelease.setExpiresAt(Instant.now().minusSeconds(60));
+        lockStore.save(recentRelease);
+
+        lockArchivalJob.archive();
+
+        Assertions.assertTrue(lockStore.findByRequestId("journal-past-stay").isEmpty());
+        Assertions.assertTrue(lockStore.findByRequestId("journal-old-release").isEmpty());
+        Assertions.assertTrue(lockStore.findByRequestId("journal-recent-release").isPresent());
+        Assertions.assertTrue(lockStore.findByStatusIn(List.of(RoomReservationLock.Status.CONFIRMED)).stream()
+                .noneMatch(lock -> lock.getEndDate().isBefore(today)));
+    }
+
+    @Test
+    void recoversFromSnapshotAndJournal(@TempDir Path dir) throws Exception {
+        try (ReservationJournal journal = new ReservationJournal(dir, 4096)) {
+            for (int i = 1; i <= 100; i++) {
+                journal.awaitDurable(journal.append(lock(i, RoomReservationLock.Status.HELD)));
+            }
+            journal.snapshot();
+            journal.awaitDurable(journal.append(lock(7, RoomReservationLock.Status.CONFIRMED)));
+            journal.awaitDurable(journal.append(lock(101, RoomReservationLock.Status.HELD)));
+        }
+
+        try (ReservationJournal journal = new ReservationJournal(dir, 4096)) {
+            Map<Long, RoomReservationLock> recovered = journal.recovered().stream()
+                    .collect(Collectors.toMap(RoomReservationLock::getId, Function.identity()));
+            Assertions.assertEquals(101, recovered.size());
+            Assertions.assertEquals(RoomReservationLock.Status.CONFIRMED, recovered.get(7L).getStatus());
+            Assertions.assertEquals("req-101", recovered.get(101L).getRequestId());
+            Assertions.assertEquals(Instant.ofEpochMilli(1_000), recovered.get(1L).getExpiresAt());
+
+            // Appending continues after the last record instead of overwriting it
+            journal.awaitDurable(journal.append(lock(102, RoomReservationLock.Status.HELD)));
+        }
+        try (ReservationJournal journal = new ReservationJournal(dir, 4096)) {
+            List<RoomReservationLock> recovered = journal.recovered();
+            Assertions.assertEquals(102, recovered.size());
+        }
+    }
+
+    private static RoomReservationLock lock(long id, RoomReservationLock.Status status) {
+        RoomReservationLock lock = new RoomReservationLock();
+        lock.setId(id);
+        lock.setRequestId("req-" + id);
+        lock.setRoomId(id % 10);
+        lock.setStartDate(LocalDate.of(2030, 1, 1));
+        lock.setEndDate(LocalDate.of(2030, 1, 3));
+        lock.setStatus(status);
+        lock.setExpiresAt(status == RoomReservationLock.Status.HELD ? Instant.ofEpochMilli(1_000) : null);
+        return lock;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.hotel;
+
+import com.example.hotel.model.RoomReservationLock;
+import com.example.hotel.repo.RoomReservationLockRepository;
+import com.example.hotel.service.LockArchivalJob;
+import com.example.hotel.service.RoomIntervalIndex;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+// A batch size of two makes one archival run go through several batches
+@SpringBootTest(properties = {
+        "hotel.locks.archive.batch-size=2",
+        "hotel.locks.archive.released-retention-minutes=60"
+})
+public class HotelLockArchivalTests {
+    private static final Long ROOM = 987_654L;
+
+    @Autowired
+    private LockArchivalJob lockArchivalJob;
+
+    @Autowired
+    private RoomReservationLockRepository lockRepository;
+
+    @Autowired
+    private RoomIntervalIndex intervalIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void finishedLocksAreMovedToHistoryAndLiveOnesStay() {
+        LocalDate today = LocalDate.now();
+        Instant now = Instant.now();
+        save("arch-released-old", today.plusDays(5), RoomReservationLock.Status.RELEASED, now.minus(Duration.ofHours(2)));
+        save("arch-released-no-deadline", today.plusDays(6), RoomReservationLock.Status.RELEASED, null);
+        save("arch-released-recent", today.plusDays(7), RoomReservationLock.Status.RELEASED, now.minus(Duration.ofMinutes(10)));
+        RoomReservationLock pastStay = save("arch-confirmed-past", today.minusDays(3), RoomReservationLock.Status.CONFIRMED, null);
+        save("arch-confirmed-older", today.minusDays(10), RoomReservationLock.Status.CONFIRMED, null);
+        save("arch-confirmed-checkout-today", today.minusDays(2), RoomReservationLock.Status.CONFIRMED, null);
+        save("arch-held-past", today.minusDays(4), RoomReservationLock.Status.HELD, now.plus(Duration.ofMinutes(5)));
+        intervalIndex.add(pastStay);
+
+        lockArchivalJob.archive();
+
+        List<String> archived = List.of("arch-released-old", "arch-released-no-deadline",
+                "arch-confirmed-past", "arch-confirmed-older");
+        List<String> kept = List.of("arch-released-recent", "arch-confirmed-checkout-today", "arch-held-past");
+        archived.forEach(requestId -> {
+            Assertions.assertTrue(lockRepository.findByRequestId(requestId).isEmpty(), requestId);
+            Assertions.assertEquals(1, history(requestId), requestId);
+        });
+        kept.forEach(requestId -> {
+            Assertions.assertTrue(lockRepository.findByRequestId(requestId).isPresent(), requestId);
+            Assertions.assertEquals(0, history(requestId), requestId);
+        });
+        Assertions.assertNull(intervalIndex.roomOf("arch-confirmed-past"));
+        Assertions.assertEquals(RoomReservationLock.Status.CONFIRMED.name(), jdbcTemplate.queryForObject(
+                "select status from room_reservation_lock_history where request_id = ?", String.class, "arch-confirmed-past"));
+    }
+
+    @Test
+    void oneRunDrainsEveryBatch() {
+        LocalDate start = LocalDate.now().minusDays(20);
+        for (int i = 0; i < 7; i++) {
+            save("arch-drain-" + i, start.plusDays(i), RoomReservationLock.Status.CONFIRMED, null);
+        }
+
+        lockArchivalJob.archive();
+
+        Assertions.assertEquals(7, jdbcTemplate.queryForObject(
+                "select count(*) from room_reservation_lock_history where request_id like 'arch-drain-%'", Integer.class));
+        Assertions.assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from room_reservation_lock where request_id like 'arch-drain-%'", Integer.class));
+    }
+
+    // A two-night stay starting on the given day
+    private RoomReservationLock save(String requestId, LocalDate start, RoomReservationLock.Status status, Instant expiresAt) {
+        RoomReservationLock lock = new RoomReservationLock();
+        lock.setRequestId(requestId);
+        lock.setRoomId(ROOM);
+        lock.setStartDate(start);
+        lock.setEndDate(start.plusDays(2));
+        lock.setStatus(status);
+        lock.setExpiresAt(expiresAt);
+        return lockRepository.save(lock);
+    }
+
+    private int history(String requestId) {
+        return jdbcTemplate.queryForObject(
+                "select count(*) from room_reservation_lock_history where request_id = ?", Integer.class, requestId);
+    }
+}
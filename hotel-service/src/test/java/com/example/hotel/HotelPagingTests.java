@@ -0,0 +1,65 @@
+package com.example.hotel;
+
+import com.example.hotel.dto.HotelResponse;
+import com.example.hotel.model.Hotel;
+import com.example.hotel.repo.HotelRepository;
+import com.example.hotel.service.HotelService;
+import com.example.hotel.web.HotelController;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+@SpringBootTest
+public class HotelPagingTests {
+    private static final String NEXT_AFTER = "X-Next-After";
+
+    @Autowired
+    private HotelController hotelController;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Test
+    void limitAboveTheCapStillReturnsTheNextCursor() {
+        hotelRepository.saveAll(IntStream.rangeClosed(0, HotelService.MAX_PAGE_LIMIT)
+                .mapToObj(i -> hotel("Paged " + i))
+                .toList());
+
+        ResponseEntity<List<HotelResponse>> page = hotelController.page(null, HotelService.MAX_PAGE_LIMIT * 5);
+
+        List<HotelResponse> rows = page.getBody();
+        Assertions.assertEquals(HotelService.MAX_PAGE_LIMIT, rows.size());
+        Assertions.assertEquals(String.valueOf(rows.get(rows.size() - 1).getId()), page.getHeaders().getFirst(NEXT_AFTER));
+    }
+
+    @Test
+    void partialPageHasNoCursor() {
+        hotelRepository.save(hotel("Paged tail"));
+        // Contexts sharing the database allocate ids in blocks, so the newest row is not always the last
+        Long id = hotelRepository.findAll().stream().map(Hotel::getId).max(Long::compare).orElseThrow();
+
+        ResponseEntity<List<HotelResponse>> page = hotelController.page(id - 1, 10);
+        Assertions.assertEquals(List.of(id), page.getBody().stream().map(HotelResponse::getId).toList());
+        Assertions.assertNull(page.getHeaders().getFirst(NEXT_AFTER));
+    }
+
+    @Test
+    void limitBelowOneIsRejected() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> hotelController.page(null, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> hotelController.page(null, -5));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> hotelController.roomPage(null, 0));
+    }
+
+    private static Hotel hotel(String name) {
+        Hotel hotel = new Hotel();
+        hotel.setName(name);
+        hotel.setCity("Paging City");
+        hotel.setAddress("Cursor street 1");
+        return hotel;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.hotel;
+
+import com.example.hotel.dto.HotelRequest;
+import com.example.hotel.dto.HotelResponse;
+import com.example.hotel.dto.RoomRequest;
+import com.example.hotel.dto.RoomResponse;
+import com.example.hotel.service.HotelService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class HotelQueryCountTests {
+    private static final int HOTELS = 20;
+    private static final int ROOMS_PER_HOTEL = 5;
+
+    @Autowired
+    private HotelService hotelService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void seedCatalog() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (int i = 0; i < HOTELS; i++) {
+            Long hotelId = hotelService.createHotel(new HotelRequest("Counted " + i, "Count City", "Street " + i)).getId();
+            for (int j = 0; j < ROOMS_PER_HOTEL; j++) {
+                hotelService.createRoom(new RoomRequest("Q-" + i + "-" + j, 2, true, hotelId));
+            }
+        }
+    }
+
+    @Test
+    void listEndpointsRunASingleStatementRegardlessOfCatalogSize() {
+        List<HotelResponse> hotels = statementsOf(1, () -> hotelService.listHotels());
+        Assertions.assertTrue(hotels.size() >= HOTELS);
+        Assertions.assertTrue(hotels.stream()
+                .filter(hotel -> hotel.getName().startsWith("Counted "))
+                .allMatch(hotel -> hotel.getRoomCount() == ROOMS_PER_HOTEL));
+
+        List<RoomResponse> rooms = statementsOf(1, () -> hotelService.listRooms());
+        Assertions.assertTrue(rooms.size() >= HOTELS * ROOMS_PER_HOTEL);
+        Assertions.assertTrue(rooms.stream()
+                .filter(room -> room.getNumber().startsWith("Q-"))
+                .allMatch(room -> room.getHotelName() != null && room.getHotelName().startsWith("Counted ")));
+
+        statementsOf(1, () -> hotelService.listHotels(0L, HOTELS));
+        statementsOf(1, () -> hotelService.listRooms(0L, HOTELS * ROOMS_PER_HOTEL));
+        statementsOf(1, () -> hotelService.getHotel(hotels.get(0).getId()));
+        statementsOf(1, () -> hotelService.getRoom(rooms.get(0).getId()));
+    }
+
+    @Test
+    void cachedReadsRunNoStatementAndShareOneResponse() {
+        Long hotelId = hotelService.createHotel(new HotelRequest("Cached", "Count City", "Street")).getId();
+        Long roomId = hotelService.createRoom(new RoomRequest("C-1", 2, true, hotelId)).getId();
+        HotelResponse hotel = hotelService.getHotel(hotelId);
+        Assertions.assertSame(hotel, statementsOf(0, () -> hotelService.getHotel(hotelId)));
+
+        RoomResponse room = hotelService.getRoom(roomId);
+        Assertions.assertSame(room, statementsOf(0, () -> hotelService.getRoom(roomId)));
+
+        // A committed write drops the shared instance, the next read loads the new row
+        hotelService.updateHotel(hotelId, new HotelRequest("Renamed", "Count City", "Street"));
+        Assertions.assertEquals("Renamed", hotelService.getHotel(hotelId).getName());
+        Assertions.assertEquals("Cached", hotel.getName());
+    }
+
+    private <T> T statementsOf(long expected, Supplier<T> call) {
+        statistics.clear();
+        T result = call.get();
+        Assertions.assertEquals(expected, statistics.getPrepareStatementCount());
+        return result;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.hotel;
+
+import com.example.hotel.dto.HotelRequest;
+import com.example.hotel.dto.RoomActionRequest;
+import com.example.hotel.dto.RoomHoldRequest;
+import com.example.hotel.dto.RoomLockResponse;
+import com.example.hotel.dto.RoomRequest;
+import com.example.hotel.service.HotelService;
+import com.example.hotel.service.RoomCommandQueues;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+@SpringBootTest(properties = {
+        "hotel.execution.mode=queue",
+        "hotel.execution.queue.busiest-rooms=" + HotelRoomQueueTests.BUSIEST_ROOMS,
+        "hotel.execution.queue.busiest-refresh-ms=3600000"
+})
+public class HotelRoomQueueTests {
+    static final int BUSIEST_ROOMS = 3;
+    private static final int ROOMS = 4;
+    private static final int HOLDS = 400;
+
+    @Autowired
+    private HotelService hotelService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private RoomCommandQueues roomCommandQueues;
+
+    @Test
+    void queuedHoldsGrantOneHoldPerRoomAndConfirmInOrder() throws Exception {
+        Long hotelId = hotelService.createHotel(new HotelRequest("Queued", "Queue City", "Main street 3")).getId();
+        List<Long> roomIds = new ArrayList<>();
+        for (int i = 0; i < ROOMS; i++) {
+            roomIds.add(hotelService.createRoom(new RoomRequest("Q-" + i, 2, true, hotelId)).getId());
+        }
+        long waitsBefore = meterRegistry.get("hotel.room.queue.wait").timer().count();
+
+        LocalDate start = LocalDate.now().plusDays(80);
+        List<Callable<RoomLockResponse>> holds = new ArrayList<>();
+        for (int i = 0; i < HOLDS; i++) {
+            Long roomId = roomIds.get(i % ROOMS);
+            RoomHoldRequest request = new RoomHoldRequest("queued-" + roomId + "-" + i, start, start.plusDays(2));
+            holds.add(() -> hotelService.holdRoom(request, roomId));
+        }
+        ConcurrentCalls.Outcome<RoomLockResponse> outcome = ConcurrentCalls.race(32, holds);
+        List<RoomLockResponse> granted = outcome.granted();
+
+        Assertions.assertEquals(ROOMS, granted.size());
+        Assertions.assertEquals(HOLDS - ROOMS, outcome.rejected());
+        Assertions.assertEquals(ROOMS, granted.stream().map(RoomLockResponse::getRoomId).distinct().count());
+        Assertions.assertEquals(HOLDS, meterRegistry.get("hotel.room.queue.wait").timer().count() - waitsBefore);
+
+        // Only the busiest rooms get a tagged series
+        roomCommandQueues.publishBusiestRooms();
+        Collection<Gauge> busiest = meterRegistry.find("hotel.room.queue.busiest.operations").gauges();
+        Assertions.assertEquals(BUSIEST_ROOMS, busiest.size());
+        for (Gauge gauge : busiest) {
+            Assertions.assertTrue(roomIds.contains(Long.valueOf(gauge.getId().getTag("room"))));
+            Assertions.assertEquals(HOLDS / ROOMS, gauge.value());
+        }
+        Assertions.assertEquals(BUSIEST_ROOMS, meterRegistry.find("hotel.room.queue.busiest.wait").gauges().size());
+
+        // Confirm then release of the same hold go through the room queue in order: release is a no-op
+        String requestId = granted.get(0).getRequestId();
+        Assertions.assertEquals("CONFIRMED", hotelService.confirmHold(new RoomActionRequest(requestId)).getStatus());
+        Assertions.assertEquals("CONFIRMED", hotelService.releaseHold(new RoomActionRequest(requestId)).getStatus());
+    }
+}
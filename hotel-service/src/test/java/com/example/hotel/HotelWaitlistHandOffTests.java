@@ -0,0 +1,147 @@
+package com.example.hotel;
+
+import com.example.hotel.dto.HotelRequest;
+import com.example.hotel.dto.RoomActionRequest;
+import com.example.hotel.dto.RoomHoldRequest;
+import com.example.hotel.dto.RoomRequest;
+import com.example.hotel.model.RoomWaitlistEntry;
+import com.example.hotel.repo.RoomWaitlistRepository;
+import com.example.hotel.service.HotelService;
+import com.example.hotel.service.WaitlistService;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Waitlist hand-off against a stand-in for booking-service's /bookings/waitlist/granted.
+ */
+@SpringBootTest(properties = {
+        "hotel.waitlist.notify-attempts=1",
+        "hotel.waitlist.reconcile-ms=3600000"
+})
+public class HotelWaitlistHandOffTests {
+    private record Notification(String authorization, String body) {}
+
+    private static final HttpServer bookingService;
+    private static final List<Notification> notifications = new CopyOnWriteArrayList<>();
+    private static final AtomicInteger answer = new AtomicInteger(200);
+
+    static {
+        try {
+            bookingService = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        bookingService.createContext("/bookings/waitlist/granted", exchange -> {
+            notifications.add(new Notification(exchange.getRequestHeaders().getFirst("Authorization"),
+                    new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8)));
+            exchange.sendResponseHeaders(answer.get(), -1);
+            exchange.close();
+        });
+        bookingService.start();
+    }
+
+    @DynamicPropertySource
+    static void notifyUrl(DynamicPropertyRegistry registry) {
+        registry.add("hotel.waitlist.notify-url", () ->
+                "http://localhost:" + bookingService.getAddress().getPort() + "/bookings/waitlist/granted");
+    }
+
+    @AfterAll
+    static void stopBookingService() {
+        bookingService.stop(0);
+    }
+
+    @Autowired
+    private HotelService hotelService;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private RoomWaitlistRepository waitlistRepository;
+
+    @Autowired
+    private JwtDecoder jwtDecoder;
+
+    @Test
+    void handOffCarriesAServiceTokenAndIsGrantedOnceAcknowledged() throws Exception {
+        answer.set(200);
+        Long roomId = waitForRoom("H-1", "handoff-owner", "handoff-waiter");
+
+        await(() -> status("handoff-waiter") == RoomWaitlistEntry.Status.GRANTED);
+        Notification notification = lastFor("handoff-waiter");
+        Assertions.assertTrue(notification.body().contains("\"status\":\"HELD\""));
+        Assertions.assertTrue(notification.body().contains("\"roomId\":" + roomId));
+        Jwt token = jwtDecoder.decode(notification.authorization().substring("Bearer ".length()));
+        Assertions.assertEquals("hotel-service", token.getSubject());
+        Assertions.assertEquals("SERVICE", token.getClaimAsString("scope"));
+    }
+
+    @Test
+    void unacknowledgedHandOffIsSentAgainWithTheEndedHold() throws Exception {
+        answer.set(503);
+        waitForRoom("H-2", "lost-owner", "lost-waiter");
+
+        await(() -> lastFor("lost-waiter") != null);
+        Assertions.assertEquals(RoomWaitlistEntry.Status.NOTIFYING, status("lost-waiter"));
+
+        // The hold runs out before booking-service comes back: it must still hear the booking is off
+        hotelService.releaseHold(new RoomActionRequest("lost-waiter"));
+        answer.set(200);
+        await(() -> {
+            waitlistService.reconcileNotifications();
+            return status("lost-waiter") == RoomWaitlistEntry.Status.EXPIRED;
+        });
+        Assertions.assertTrue(lastFor("lost-waiter").body().contains("\"status\":\"RELEASED\""));
+    }
+
+    // The owner holds the room, the waiter queues behind it, then the owner lets go
+    private Long waitForRoom(String number, String owner, String waiter) {
+        Long hotelId = hotelService.createHotel(new HotelRequest("Hand-off", "Queue Town", "Main street 7")).getId();
+        Long roomId = hotelService.createRoom(new RoomRequest(number, 2, true, hotelId)).getId();
+        LocalDate start = LocalDate.now().plusDays(210);
+        hotelService.holdRoom(new RoomHoldRequest(owner, start, start.plusDays(2)), roomId);
+        waitlistService.join(roomId, new RoomHoldRequest(waiter, start, start.plusDays(2)));
+        hotelService.releaseHold(new RoomActionRequest(owner));
+        return roomId;
+    }
+
+    private RoomWaitlistEntry.Status status(String requestId) {
+        return waitlistRepository.findByRequestId(requestId).orElseThrow().getStatus();
+    }
+
+    private static Notification lastFor(String requestId) {
+        Notification last = null;
+        for (Notification notification : notifications) {
+            if (notification.body().contains("\"requestId\":\"" + requestId + "\"")) {
+                last = notification;
+            }
+        }
+        return last;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            Assertions.assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for the hand-off");
+            Thread.sleep(50);
+        }
+    }
+}
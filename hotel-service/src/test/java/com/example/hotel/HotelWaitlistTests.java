@@ -0,0 +1,83 @@
+package com.example.hotel;
+
+import com.example.hotel.dto.HotelRequest;
+import com.example.hotel.dto.RoomActionRequest;
+import com.example.hotel.dto.RoomHoldRequest;
+import com.example.hotel.dto.RoomRequest;
+import com.example.hotel.dto.RoomWaitlistResponse;
+import com.example.hotel.exception.RoomUnavailableException;
+import com.example.hotel.model.RoomReservationLock;
+import com.example.hotel.model.RoomWaitlistEntry;
+import com.example.hotel.repo.RoomReservationLockRepository;
+import com.example.hotel.repo.RoomWaitlistRepository;
+import com.example.hotel.service.HotelService;
+import com.example.hotel.service.WaitlistService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+
+@SpringBootTest(properties = "hotel.waitlist.notify-url=")
+public class HotelWaitlistTests {
+
+    @Autowired
+    private HotelService hotelService;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private RoomWaitlistRepository waitlistRepository;
+
+    @Autowired
+    private RoomReservationLockRepository lockRepository;
+
+    @Test
+    void releasedHoldGoesToTheFirstCompatibleWaiter() throws Exception {
+        Long hotelId = hotelService.createHotel(new HotelRequest("Waitlist", "Queue Town", "Main street 6")).getId();
+        Long roomId = hotelService.createRoom(new RoomRequest("W-1", 2, true, hotelId)).getId();
+
+        LocalDate start = LocalDate.now().plusDays(200);
+        hotelService.holdRoom(new RoomHoldRequest("wait-owner", start, start.plusDays(3)), roomId);
+        Assertions.assertThrows(RoomUnavailableException.class,
+                () -> hotelService.holdRoom(new RoomHoldRequest("wait-first", start.plusDays(1), start.plusDays(4)), roomId));
+        RoomWaitlistResponse first = waitlistService.join(roomId, new RoomHoldRequest("wait-first", start.plusDays(1), start.plusDays(4)));
+        // Overlaps the first waiter, so it keeps waiting once the first one is served
+        waitlistService.join(roomId, new RoomHoldRequest("wait-second", start, start.plusDays(2)));
+        Assertions.assertEquals("WAITING", first.getStatus());
+
+        hotelService.releaseHold(new RoomActionRequest("wait-owner"));
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        // WAITING, then NOTIFYING until the hand-off is acknowledged
+        while (waitlistRepository.findByRequestId("wait-first").orElseThrow().getStatus() != RoomWaitlistEntry.Status.GRANTED
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        Assertions.assertEquals(RoomWaitlistEntry.Status.GRANTED,
+                waitlistRepository.findByRequestId("wait-first").orElseThrow().getStatus());
+        Assertions.assertEquals(RoomReservationLock.Status.HELD,
+                lockRepository.findByRequestId("wait-first").orElseThrow().getStatus());
+        Assertions.assertEquals(RoomWaitlistEntry.Status.WAITING,
+                waitlistRepository.findByRequestId("wait-second").orElseThrow().getStatus());
+    }
+
+    @Test
+    void leavingGoesThroughTheRoomTheRequestWaitsFor() {
+        Long hotelId = hotelService.createHotel(new HotelRequest("Waitlist", "Queue Town", "Main street 8")).getId();
+        Long roomId = hotelService.createRoom(new RoomRequest("W-2", 2, true, hotelId)).getId();
+        Long otherRoomId = hotelService.createRoom(new RoomRequest("W-3", 2, true, hotelId)).getId();
+        LocalDate start = LocalDate.now().plusDays(220);
+        hotelService.holdRoom(new RoomHoldRequest("leave-owner", start, start.plusDays(2)), roomId);
+        waitlistService.join(roomId, new RoomHoldRequest("leave-waiter", start, start.plusDays(2)));
+
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> waitlistService.leave(otherRoomId, new RoomActionRequest("leave-waiter")));
+        Assertions.assertEquals(RoomWaitlistEntry.Status.WAITING,
+                waitlistRepository.findByRequestId("leave-waiter").orElseThrow().getStatus());
+
+        Assertions.assertEquals("CANCELLED", waitlistService.leave(roomId, new RoomActionRequest("leave-waiter")).getStatus());
+    }
+}
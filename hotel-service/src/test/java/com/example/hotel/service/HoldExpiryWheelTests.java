@@ -0,0 +1,83 @@
+package com.example.hotel.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class HoldExpiryWheelTests {
+    private static final long TICK = 1000;
+    private static final int SIZE = 8;
+
+    @Test
+    void entryIsDueOnTheFirstAdvancePastItsDeadline() {
+        HoldExpiryWheel wheel = new HoldExpiryWheel(TICK, SIZE);
+        long now = System.currentTimeMillis();
+        HoldExpiryWheel.Entry entry = entry("a", now + 2500);
+        wheel.schedule(entry);
+
+        Assertions.assertTrue(wheel.advance(now + 2000).isEmpty());
+        Assertions.assertTrue(wheel.advance(now + 2499).isEmpty());
+        Assertions.assertEquals(List.of(entry), wheel.advance(now + 2500 + TICK));
+        Assertions.assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void entriesSeveralRotationsAheadWaitInTheirBucket() {
+        HoldExpiryWheel wheel = new HoldExpiryWheel(TICK, SIZE);
+        long now = System.currentTimeMillis();
+        // Shares a bucket with deadlines one and two rotations earlier
+        HoldExpiryWheel.Entry far = entry("far", now + (2 * SIZE + 3) * TICK);
+        HoldExpiryWheel.Entry near = entry("near", now + 3 * TICK);
+        wheel.schedule(far);
+        wheel.schedule(near);
+
+        // Step tick by tick so every bucket is visited several times
+        for (long t = now; t < far.deadlineMillis(); t += TICK) {
+            List<HoldExpiryWheel.Entry> due = wheel.advance(t);
+            Assertions.assertFalse(due.contains(far), "far entry due at " + (t - now));
+            // Deadlines round up to a tick, so an entry may be due one tick after its deadline
+            if (t >= near.deadlineMillis() + TICK) {
+                Assertions.assertEquals(1, wheel.size());
+            }
+        }
+        Assertions.assertEquals(List.of(far), wheel.advance(far.deadlineMillis() + TICK));
+    }
+
+    @Test
+    void lateEntriesArePickedUpOnTheNextAdvance() {
+        HoldExpiryWheel wheel = new HoldExpiryWheel(TICK, SIZE);
+        long now = System.currentTimeMillis();
+        wheel.advance(now + 5 * TICK);
+        // Deadline already behind the cursor, e.g. a hold loaded at startup
+        HoldExpiryWheel.Entry late = entry("late", now - 60_000);
+        wheel.schedule(late);
+
+        Assertions.assertEquals(List.of(late), wheel.advance(now + 6 * TICK));
+    }
+
+    @Test
+    void jumpLongerThanARotationVisitsEveryBucketOnce() {
+        HoldExpiryWheel wheel = new HoldExpiryWheel(TICK, SIZE);
+        long now = System.currentTimeMillis();
+        for (int i = 1; i <= SIZE * 3; i++) {
+            wheel.schedule(entry("e" + i, now + i * TICK));
+        }
+
+        List<HoldExpiryWheel.Entry> due = wheel.advance(now + SIZE * 2 * TICK);
+        Assertions.assertEquals(SIZE * 2, due.size());
+        Assertions.assertTrue(due.stream().allMatch(e -> e.deadlineMillis() <= now + SIZE * 2 * TICK));
+        Assertions.assertEquals(SIZE, wheel.size());
+        Assertions.assertEquals(SIZE, wheel.advance(now + (SIZE * 3 + 1) * TICK).size());
+    }
+
+    @Test
+    void wheelSizeMustBeAPowerOfTwo() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new HoldExpiryWheel(TICK, 12));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new HoldExpiryWheel(0, 8));
+    }
+
+    private static HoldExpiryWheel.Entry entry(String requestId, long deadlineMillis) {
+        return new HoldExpiryWheel.Entry(requestId, 1L, deadlineMillis);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.hotel.service;
+
+import com.example.hotel.dto.HotelSearchResult;
+import com.example.hotel.model.Hotel;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class HotelSearchIndexTests {
+
+    @Test
+    void tokensAreFoldedToLowerCaseWithoutDiacritics() {
+        Assertions.assertEquals(List.of("hotel", "saint", "etienne"), HotelSearchIndex.tokenize("Hôtel Saint-Étienne"));
+        Assertions.assertEquals(List.of("ulitsa", "lenina", "5"), HotelSearchIndex.tokenize("  ULITSA  Lenina, 5 "));
+        Assertions.assertEquals(List.of("елка"), HotelSearchIndex.tokenize("Ёлка"));
+        Assertions.assertTrue(HotelSearchIndex.tokenize(" - ").isEmpty());
+        Assertions.assertTrue(HotelSearchIndex.tokenize(null).isEmpty());
+    }
+
+    @Test
+    void queryMatchesAccentedTextRegardlessOfCase() {
+        HotelSearchIndex index = index(
+                hotel(1L, "Hôtel Saint-Étienne", "Lyon", "Rue de la République 3"),
+                hotel(2L, "Grand Hotel", "Paris", "Rue Royale 1"));
+
+        Assertions.assertEquals(List.of(1L), ids(index.search("ETIENNE", 10)));
+        Assertions.assertEquals(List.of(1L), ids(index.search("étienne", 10)));
+        Assertions.assertEquals(List.of(1L, 2L), ids(index.search("HÔTEL", 10)).stream().sorted().toList());
+        Assertions.assertEquals(List.of(1L), ids(index.search("republique", 10)));
+    }
+
+    @Test
+    void everyQueryTokenMustPrefixSomeHotelToken() {
+        HotelSearchIndex index = index(
+                hotel(1L, "Grand Hotel", "Paris", "Rue Royale 1"),
+                hotel(2L, "Grand Palace", "Prague", "Main 2"),
+                hotel(3L, "Granada Inn", "Granada", "Alhambra 4"));
+
+        Assertions.assertEquals(List.of(1L, 2L, 3L), ids(index.search("gra", 10)).stream().sorted().toList());
+        Assertions.assertEquals(List.of(1L, 2L), ids(index.search("grand", 10)).stream().sorted().toList());
+        Assertions.assertEquals(List.of(2L), ids(index.search("pra gran", 10)));
+        Assertions.assertEquals(List.of(1L), ids(index.search("gr ro", 10)));
+        Assertions.assertTrue(index.search("grandest", 10).isEmpty());
+        Assertions.assertTrue(index.search("otel", 10).isEmpty());
+        Assertions.assertTrue(index.search("   ", 10).isEmpty());
+    }
+
+    @Test
+    void searchStopsAtTheLimitAndReportsEachHotelOnce() {
+        HotelSearchIndex index = index(
+                hotel(1L, "Sea View", "Seaside", "Sea Road 1"),
+                hotel(2L, "Sea Breeze", "Seaside", "Sea Road 2"),
+                hotel(3L, "Sea Star", "Seaside", "Sea Road 3"));
+
+        Assertions.assertEquals(2, index.search("sea", 2).size());
+        Assertions.assertEquals(List.of(1L, 2L, 3L), ids(index.search("sea", 10)).stream().sorted().toList());
+    }
+
+    @Test
+    void updatedAndRemovedHotelsLeaveNoStaleTokens() {
+        HotelSearchIndex index = index(hotel(1L, "Old Name", "Oslo", "Karl Johans gate 1"));
+
+        index.put(hotel(1L, "New Name", "Bergen", "Bryggen 2"));
+        Assertions.assertTrue(index.search("old", 10).isEmpty());
+        Assertions.assertTrue(index.search("oslo", 10).isEmpty());
+        Assertions.assertEquals("Bergen", index.search("new berg", 10).get(0).getCity());
+
+        index.remove(1L);
+        Assertions.assertTrue(index.search("name", 10).isEmpty());
+    }
+
+    private static HotelSearchIndex index(Hotel... hotels) {
+        HotelSearchIndex index = new HotelSearchIndex(null);
+        for (Hotel hotel : hotels) {
+            index.put(hotel);
+        }
+        return index;
+    }
+
+    private static Hotel hotel(Long id, String name, String city, String address) {
+        Hotel hotel = new Hotel();
+        hotel.setId(id);
+        hotel.setName(name);
+        hotel.setCity(city);
+        hotel.setAddress(address);
+        return hotel;
+    }
+
+    private static List<Long> ids(List<HotelSearchResult> results) {
+        return results.stream().map(HotelSearchResult::getId).toList();
+    }
+}
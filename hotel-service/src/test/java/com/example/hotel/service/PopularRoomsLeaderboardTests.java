@@ -0,0 +1,104 @@
+package com.example.hotel.service;
+
+import com.example.hotel.dto.RoomResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class PopularRoomsLeaderboardTests {
+
+    @Test
+    void hotelAndCityViewsRankOnlyTheirOwnRooms() {
+        PopularRoomsLeaderboard leaderboard = leaderboard(
+                room(1L, 10L, "Paris", 5),
+                room(2L, 10L, "Paris", 7),
+                room(3L, 20L, " paris ", 6),
+                room(4L, 30L, "Lyon", 9));
+
+        Assertions.assertEquals(List.of(4L, 2L, 3L, 1L), ids(leaderboard.top(10, null, null)));
+        Assertions.assertEquals(List.of(2L, 1L), ids(leaderboard.top(10, 10L, null)));
+        Assertions.assertEquals(List.of(2L, 3L, 1L), ids(leaderboard.top(10, null, "PARIS")));
+        Assertions.assertEquals(List.of(4L), ids(leaderboard.top(10, null, "Lyon")));
+        Assertions.assertTrue(leaderboard.top(10, 99L, null).isEmpty());
+        Assertions.assertTrue(leaderboard.top(10, null, "Nice").isEmpty());
+    }
+
+    @Test
+    void bookingsMoveARoomUpInEveryView() {
+        PopularRoomsLeaderboard leaderboard = leaderboard(
+                room(1L, 10L, "Paris", 2),
+                room(2L, 10L, "Paris", 3),
+                room(3L, 20L, "Paris", 4));
+
+        leaderboard.recordBooking(1L);
+        leaderboard.recordBooking(1L);
+        leaderboard.recordBooking(1L);
+
+        Assertions.assertEquals(List.of(1L, 3L, 2L), ids(leaderboard.top(10, null, null)));
+        Assertions.assertEquals(List.of(1L, 2L), ids(leaderboard.top(10, 10L, null)));
+        Assertions.assertEquals(List.of(1L, 3L, 2L), ids(leaderboard.top(10, null, "Paris")));
+        Assertions.assertEquals(5, leaderboard.top(1, null, null).get(0).getTimesBooked());
+    }
+
+    @Test
+    void catalogRefreshKeepsTheRankedCount() {
+        PopularRoomsLeaderboard leaderboard = leaderboard(room(1L, 10L, "Paris", 4), room(2L, 10L, "Paris", 3));
+
+        // The row read back still has the count from before the in-memory bookings were flushed
+        leaderboard.put(new PopularRoomsLeaderboard.RankedRoom(2L, "201", 3, true, "SUITE", 10L, "Hotel 10", "Paris", 0));
+
+        RoomResponse refreshed = leaderboard.top(10, null, null).get(1);
+        Assertions.assertEquals(2L, refreshed.getId());
+        Assertions.assertEquals(3, refreshed.getTimesBooked());
+        Assertions.assertEquals(3, refreshed.getCapacity());
+        Assertions.assertEquals("SUITE", refreshed.getRoomType());
+    }
+
+    @Test
+    void tiesAreOrderedByRoomId() {
+        PopularRoomsLeaderboard leaderboard = leaderboard(
+                room(3L, 10L, "Paris", 1),
+                room(1L, 10L, "Paris", 1),
+                room(2L, 20L, "Paris", 1));
+
+        Assertions.assertEquals(List.of(1L, 2L, 3L), ids(leaderboard.top(10, null, null)));
+        Assertions.assertEquals(List.of(1L, 3L), ids(leaderboard.top(10, 10L, null)));
+
+        // Reaching the same count as a lower id still ranks behind it
+        leaderboard.recordBooking(3L);
+        leaderboard.recordBooking(1L);
+        Assertions.assertEquals(List.of(1L, 3L, 2L), ids(leaderboard.top(10, null, null)));
+    }
+
+    @Test
+    void topStopsAtTheLimit() {
+        PopularRoomsLeaderboard leaderboard = leaderboard(
+                room(1L, 10L, "Paris", 1),
+                room(2L, 10L, "Paris", 2),
+                room(3L, 10L, "Paris", 3),
+                room(4L, 10L, "Paris", 4));
+
+        Assertions.assertEquals(List.of(4L, 3L), ids(leaderboard.top(2, null, null)));
+        Assertions.assertEquals(List.of(4L), ids(leaderboard.top(1, 10L, null)));
+        Assertions.assertEquals(List.of(4L, 3L, 2L), ids(leaderboard.top(3, null, "Paris")));
+        Assertions.assertTrue(leaderboard.top(0, null, null).isEmpty());
+    }
+
+    private static PopularRoomsLeaderboard leaderboard(PopularRoomsLeaderboard.RankedRoom... rooms) {
+        PopularRoomsLeaderboard leaderboard = new PopularRoomsLeaderboard(null);
+        for (PopularRoomsLeaderboard.RankedRoom room : rooms) {
+            leaderboard.put(room);
+        }
+        return leaderboard;
+    }
+
+    private static PopularRoomsLeaderboard.RankedRoom room(Long roomId, Long hotelId, String city, long timesBooked) {
+        return new PopularRoomsLeaderboard.RankedRoom(roomId, String.valueOf(100 + roomId), 2, true, null,
+                hotelId, "Hotel " + hotelId, city, timesBooked);
+    }
+
+    private static List<Long> ids(List<RoomResponse> rooms) {
+        return rooms.stream().map(RoomResponse::getId).toList();
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.hotel.service;
+
+import com.example.hotel.model.RoomReservationLock;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ReservationJournalTests {
+
+    @Test
+    void statusCodesDoNotDependOnTheEnumOrder() {
+        // Codes written by earlier versions: 0 held, 1 released, 2 confirmed
+        Assertions.assertEquals(RoomReservationLock.Status.HELD, ReservationJournal.decode(payload((byte) 0)).getStatus());
+        Assertions.assertEquals(RoomReservationLock.Status.RELEASED, ReservationJournal.decode(payload((byte) 1)).getStatus());
+        Assertions.assertEquals(RoomReservationLock.Status.CONFIRMED, ReservationJournal.decode(payload((byte) 2)).getStatus());
+        Assertions.assertThrows(IllegalStateException.class, () -> ReservationJournal.decode(payload((byte) 9)));
+    }
+
+    @Test
+    void tombstonesDropLocksFromReplayAndSnapshots(@TempDir Path dir) throws Exception {
+        try (ReservationJournal journal = new ReservationJournal(dir, 4096)) {
+            for (int i = 1; i <= 3; i++) {
+                journal.append(lock(i, RoomReservationLock.Status.HELD));
+            }
+            journal.appendDeleted(lock(2, RoomReservationLock.Status.HELD));
+            journal.awaitDurable(journal.appendDeleted(lock(3, RoomReservationLock.Status.HELD)));
+        }
+        try (ReservationJournal journal = new ReservationJournal(dir, 4096)) {
+            Assertions.assertEquals(List.of(1L), ids(journal));
+            Assertions.assertEquals(3, journal.highestId());
+            journal.snapshot();
+        }
+        try (ReservationJournal journal = new ReservationJournal(dir, 4096)) {
+            // Recovered from the snapshot alone: the deleted highest id is still known
+            Assertions.assertEquals(List.of(1L), ids(journal));
+            Assertions.assertEquals(3, journal.highestId());
+
+            journal.awaitDurable(journal.append(lock(2, RoomReservationLock.Status.CONFIRMED)));
+        }
+        try (ReservationJournal journal = new ReservationJournal(dir, 4096)) {
+            Assertions.assertEquals(List.of(1L, 2L), ids(journal));
+        }
+    }
+
+    @Test
+    void failedFlushReleasesNoWaiterAsDurable(@TempDir Path dir) throws Exception {
+        CountDownLatch flushStarted = new CountDownLatch(1);
+        CountDownLatch failFlush = new CountDownLatch(1);
+        AtomicBoolean diskFails = new AtomicBoolean(true);
+        try (ReservationJournal journal = new ReservationJournal(dir, 4096) {
+            @Override
+            void force(MappedByteBuffer buffer) {
+                if (diskFails.get()) {
+                    flushStarted.countDown();
+                    try {
+                        failFlush.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    throw new UncheckedIOException(new IOException("disk failure"));
+                }
+                super.force(buffer);
+            }
+        }) {
+            long first = journal.append(lock(1, RoomReservationLock.Status.HELD));
+            long second = journal.append(lock(2, RoomReservationLock.Status.HELD));
+            ExecutorService pool = Executors.newFixedThreadPool(2);
+            try {
+                Future<?> flusher = pool.submit(() -> journal.awaitDurable(first));
+                flushStarted.await();
+                AtomicReference<Thread> waiterThread = new AtomicReference<>();
+                Future<?> waiter = pool.submit(() -> {
+                    waiterThread.set(Thread.currentThread());
+                    journal.awaitDurable(second);
+                });
+                // The waiter parks behind the flush in progress before that flush fails
+                while (waiterThread.get() == null || waiterThread.get().getState() != Thread.State.WAITING) {
+                    Thread.sleep(5);
+                }
+                failFlush.countDown();
+
+                assertFailedWithDiskError(flusher);
+                assertFailedWithDiskError(waiter);
+            } finally {
+                pool.shutdownNow();
+            }
+
+            diskFails.set(false);
+            journal.awaitDurable(second);
+        }
+    }
+
+    private static void assertFailedWithDiskError(Future<?> future) throws Exception {
+        ExecutionException failure = Assertions.assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(UncheckedIOException.class, failure.getCause());
+    }
+
+    private static List<Long> ids(ReservationJournal journal) {
+        return journal.recovered().stream().map(RoomReservationLock::getId).sorted().toList();
+    }
+
+    private static ByteBuffer payload(byte statusCode) {
+        byte[] requestId = "req".getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(8 * 5 + 1 + 4 + requestId.length)
+                .putLong(1).putLong(2).putLong(3).putLong(4).putLong(Long.MIN_VALUE)
+                .put(statusCode).putInt(requestId.length).put(requestId)
+                .flip();
+    }
+
+    private static RoomReservationLock lock(long id, RoomReservationLock.Status status) {
+        RoomReservationLock lock = new RoomReservationLock();
+        lock.setId(id);
+        lock.setRequestId("req-" + id);
+        lock.setRoomId(1L);
+        lock.setStartDate(LocalDate.of(2030, 1, 1));
+        lock.setEndDate(LocalDate.of(2030, 1, 3));
+        lock.setStatus(status);
+        return lock;
+    }
+}
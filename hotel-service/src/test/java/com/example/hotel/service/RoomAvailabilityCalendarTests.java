@@ -0,0 +1,129 @@
+package com.example.hotel.service;
+
+import com.example.hotel.model.RoomReservationLock;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+public class RoomAvailabilityCalendarTests {
+    private static final int NIGHTS = RoomAvailabilityCalendar.HORIZON_NIGHTS;
+
+    @Test
+    void rangesOnWordBoundariesMatchABitSet() {
+        int[][] ranges = {
+                {0, 1}, {63, 64}, {63, 65}, {64, 65}, {0, 64}, {64, 128}, {60, 200},
+                {127, 129}, {NIGHTS - 1, NIGHTS}, {NIGHTS - 64, NIGHTS}, {0, NIGHTS}
+        };
+        for (int[] range : ranges) {
+            long[] words = new long[RoomAvailabilityCalendar.HORIZON_WORDS];
+            BitSet expected = new BitSet(NIGHTS);
+            RoomAvailabilityCalendar.setRange(words, range[0], range[1], true);
+            expected.set(range[0], range[1]);
+            assertSameBits(expected, words);
+            for (int[] probe : ranges) {
+                Assertions.assertEquals(!expected.get(probe[0], probe[1]).isEmpty(),
+                        RoomAvailabilityCalendar.anySet(words, probe[0], probe[1]),
+                        "set " + range[0] + ".." + range[1] + ", probe " + probe[0] + ".." + probe[1]);
+            }
+        }
+    }
+
+    @Test
+    void randomSetsAndClearsMatchABitSet() {
+        Random random = new Random(42);
+        long[] words = new long[RoomAvailabilityCalendar.HORIZON_WORDS];
+        BitSet expected = new BitSet(NIGHTS);
+        for (int i = 0; i < 5000; i++) {
+            int from = random.nextInt(NIGHTS);
+            int to = from + 1 + random.nextInt(Math.min(150, NIGHTS - from));
+            if (random.nextInt(3) == 0) {
+                boolean value = random.nextBoolean();
+                RoomAvailabilityCalendar.setRange(words, from, to, value);
+                expected.set(from, to, value);
+            } else {
+                Assertions.assertEquals(!expected.get(from, to).isEmpty(),
+                        RoomAvailabilityCalendar.anySet(words, from, to), "probe " + from + ".." + to);
+            }
+        }
+        assertSameBits(expected, words);
+    }
+
+    @Test
+    void clearingARangeKeepsItsNeighbours() {
+        long[] words = new long[RoomAvailabilityCalendar.HORIZON_WORDS];
+        RoomAvailabilityCalendar.setRange(words, 60, 70, true);
+        RoomAvailabilityCalendar.setRange(words, 63, 65, false);
+        Assertions.assertTrue(RoomAvailabilityCalendar.anySet(words, 62, 63));
+        Assertions.assertFalse(RoomAvailabilityCalendar.anySet(words, 63, 65));
+        Assertions.assertTrue(RoomAvailabilityCalendar.anySet(words, 65, 66));
+    }
+
+    @Test
+    void checkOutAndCheckInOnTheSameDayDoNotConflict() {
+        RoomIntervalIndex index = new RoomIntervalIndex(null);
+        RoomAvailabilityCalendar calendar = new RoomAvailabilityCalendar(index);
+        calendar.load();
+        LocalDate start = LocalDate.now().plusDays(10);
+        occupy(index, calendar, lock("a", 1L, start, start.plusDays(3)));
+
+        Assertions.assertFalse(calendar.isFree(1L, start.plusDays(2), start.plusDays(4)));
+        Assertions.assertTrue(calendar.isFree(1L, start.plusDays(3), start.plusDays(5)));
+        Assertions.assertTrue(calendar.isFree(1L, start.minusDays(2), start));
+        Assertions.assertEquals(List.of(2L), calendar.freeRooms(List.of(1L, 2L), start, start.plusDays(1)));
+    }
+
+    @Test
+    void rangesPastTheHorizonAreAnsweredByTheIndex() {
+        RoomIntervalIndex index = new RoomIntervalIndex(null);
+        RoomAvailabilityCalendar calendar = new RoomAvailabilityCalendar(index);
+        calendar.load();
+        LocalDate beyond = LocalDate.now().plusDays(NIGHTS + 10);
+        occupy(index, calendar, lock("far", 1L, beyond, beyond.plusDays(2)));
+
+        Assertions.assertFalse(calendar.covers(beyond, beyond.plusDays(1)));
+        Assertions.assertFalse(calendar.isFree(1L, beyond.plusDays(1), beyond.plusDays(3)));
+        Assertions.assertTrue(calendar.isFree(1L, beyond.plusDays(2), beyond.plusDays(3)));
+    }
+
+    @Test
+    void rolloverRebuildsTheHorizonFromTheIndex() {
+        RoomIntervalIndex index = new RoomIntervalIndex(null);
+        RoomAvailabilityCalendar calendar = new RoomAvailabilityCalendar(index);
+        LocalDate today = LocalDate.now();
+        // A stay starting yesterday, and one on the night just past yesterday's horizon
+        index.add(lock("past", 1L, today.minusDays(1), today.plusDays(1)));
+        LocalDate lastNight = today.minusDays(1).plusDays(NIGHTS);
+        index.add(lock("edge", 2L, lastNight, lastNight.plusDays(1)));
+        calendar.rebuild(today.minusDays(1).toEpochDay());
+
+        // The first query of the new day shifts the horizon: today is now slot 0
+        Assertions.assertFalse(calendar.isFree(1L, today, today.plusDays(1)));
+        Assertions.assertTrue(calendar.isFree(1L, today.plusDays(1), today.plusDays(2)));
+        Assertions.assertTrue(calendar.covers(lastNight, lastNight.plusDays(1)));
+        Assertions.assertFalse(calendar.isFree(2L, lastNight, lastNight.plusDays(1)));
+    }
+
+    private static void occupy(RoomIntervalIndex index, RoomAvailabilityCalendar calendar, RoomReservationLock lock) {
+        index.add(lock);
+        calendar.occupy(lock.getRoomId(), lock.getStartDate(), lock.getEndDate());
+    }
+
+    private static RoomReservationLock lock(String requestId, Long roomId, LocalDate start, LocalDate end) {
+        RoomReservationLock lock = new RoomReservationLock();
+        lock.setRequestId(requestId);
+        lock.setRoomId(roomId);
+        lock.setStartDate(start);
+        lock.setEndDate(end);
+        lock.setStatus(RoomReservationLock.Status.HELD);
+        return lock;
+    }
+
+    private static void assertSameBits(BitSet expected, long[] words) {
+        Assertions.assertArrayEquals(expected.toLongArray(),
+                BitSet.valueOf(words).toLongArray());
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.hotel.service;
+
+import com.example.hotel.model.RoomReservationLock;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public class RoomIntervalIndexTests {
+    private static final LocalDate DAY = LocalDate.of(2030, 6, 10);
+
+    @Test
+    void touchingStaysDoNotConflict() {
+        RoomIntervalIndex index = index();
+        index.add(lock("middle", 1L, DAY, DAY.plusDays(3), RoomReservationLock.Status.HELD));
+
+        // Check-out and check-in on the same day share no night
+        Assertions.assertFalse(index.hasConflict(1L, DAY.minusDays(2), DAY));
+        Assertions.assertFalse(index.hasConflict(1L, DAY.plusDays(3), DAY.plusDays(5)));
+        Assertions.assertTrue(index.hasConflict(1L, DAY.minusDays(2), DAY.plusDays(1)));
+        Assertions.assertTrue(index.hasConflict(1L, DAY.plusDays(2), DAY.plusDays(5)));
+        Assertions.assertTrue(index.hasConflict(1L, DAY.plusDays(1), DAY.plusDays(2)));
+        Assertions.assertTrue(index.hasConflict(1L, DAY.minusDays(1), DAY.plusDays(4)));
+        Assertions.assertFalse(index.hasConflict(2L, DAY, DAY.plusDays(3)));
+
+        // Stays on both sides fill the gaps without touching the one in the middle
+        Assertions.assertTrue(index.add(lock("before", 1L, DAY.minusDays(2), DAY, RoomReservationLock.Status.HELD)));
+        Assertions.assertTrue(index.add(lock("after", 1L, DAY.plusDays(3), DAY.plusDays(4), RoomReservationLock.Status.CONFIRMED)));
+        Assertions.assertTrue(index.hasConflict(1L, DAY.minusDays(1), DAY));
+        Assertions.assertTrue(index.hasConflict(1L, DAY.plusDays(3), DAY.plusDays(4)));
+        Assertions.assertFalse(index.hasConflict(1L, DAY.plusDays(4), DAY.plusDays(6)));
+    }
+
+    @Test
+    void releasedStayFreesItsNights() {
+        RoomIntervalIndex index = index();
+        RoomReservationLock held = lock("released", 1L, DAY, DAY.plusDays(2), RoomReservationLock.Status.HELD);
+        index.add(held);
+        Assertions.assertEquals(1L, index.roomOf("released"));
+
+        Assertions.assertTrue(index.remove(held));
+        Assertions.assertFalse(index.hasConflict(1L, DAY, DAY.plusDays(2)));
+        Assertions.assertNull(index.roomOf("released"));
+        // Removing twice, or removing a lock that does not own the slot, changes nothing
+        Assertions.assertFalse(index.remove(held));
+        index.add(lock("owner", 1L, DAY, DAY.plusDays(2), RoomReservationLock.Status.HELD));
+        Assertions.assertFalse(index.remove(lock("stranger", 1L, DAY, DAY.plusDays(2), RoomReservationLock.Status.HELD)));
+        Assertions.assertTrue(index.hasConflict(1L, DAY, DAY.plusDays(1)));
+    }
+
+    @Test
+    void loadRebuildsActiveStaysFromTheLockStore() {
+        RoomIntervalIndex index = index(
+                lock("held", 1L, DAY, DAY.plusDays(2), RoomReservationLock.Status.HELD),
+                lock("confirmed", 1L, DAY.plusDays(5), DAY.plusDays(7), RoomReservationLock.Status.CONFIRMED),
+                lock("released", 2L, DAY, DAY.plusDays(2), RoomReservationLock.Status.RELEASED));
+
+        index.load();
+
+        Assertions.assertTrue(index.hasConflict(1L, DAY.plusDays(1), DAY.plusDays(2)));
+        Assertions.assertTrue(index.hasConflict(1L, DAY.plusDays(6), DAY.plusDays(8)));
+        Assertions.assertFalse(index.hasConflict(1L, DAY.plusDays(2), DAY.plusDays(5)));
+        Assertions.assertFalse(index.hasConflict(2L, DAY, DAY.plusDays(2)));
+        Assertions.assertEquals(1L, index.roomOf("confirmed"));
+        Assertions.assertNull(index.roomOf("released"));
+        List<String> loaded = new ArrayList<>();
+        index.forEachOf(1L, interval -> loaded.add(interval.requestId()));
+        Assertions.assertEquals(List.of("held", "confirmed"), loaded);
+    }
+
+    private static RoomIntervalIndex index(RoomReservationLock... stored) {
+        return new RoomIntervalIndex(new StubLockStore(List.of(stored)));
+    }
+
+    private static RoomReservationLock lock(String requestId, Long roomId, LocalDate start, LocalDate end,
+                                            RoomReservationLock.Status status) {
+        RoomReservationLock lock = new RoomReservationLock();
+        lock.setRequestId(requestId);
+        lock.setRoomId(roomId);
+        lock.setStartDate(start);
+        lock.setEndDate(end);
+        lock.setStatus(status);
+        return lock;
+    }
+
+    // Only the status query is used by the index
+    private record StubLockStore(List<RoomReservationLock> locks) implements ReservationLockStore {
+        @Override
+        public List<RoomReservationLock> findByStatusIn(Collection<RoomReservationLock.Status> statuses) {
+            return locks.stream().filter(lock -> statuses.contains(lock.getStatus())).toList();
+        }
+
+        @Override
+        public Optional<RoomReservationLock> findByRequestId(String requestId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<RoomReservationLock> findByRequestIdIn(Collection<String> requestIds) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<RoomReservationLock> findExpiredHolds(Collection<String> requestIds, Instant now) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public RoomReservationLock save(RoomReservationLock lock) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<RoomReservationLock> saveAll(Collection<RoomReservationLock> locks) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int updateStatus(Collection<Long> ids, RoomReservationLock.Status from, RoomReservationLock.Status to) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int deleteByRoomIds(Collection<Long> roomIds) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<RoomReservationLock> compactFinished(Instant releasedBefore, LocalDate today, int limit) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}